@@ -0,0 +1,662 @@
+package ICS4U1;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.*;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/*
+Class: AccountStore.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: The players' accounts, kept in a memory-mapped file so that they survive restarts. The file is one big hash table of
+			 fixed-size records (open addressing with linear probing on a hash of the username), so finding an account touches one or
+			 two records no matter how many accounts there are, and opening the file reads nothing but its header: the operating
+			 system only loads the pages that are actually used. When the table is three quarters full it is copied into a file twice
+			 the size. Passwords are never stored, only a salted PBKDF2 (HMAC-SHA256) hash of them, which is slow on purpose so that a
+			 stolen file cannot be guessed through quickly. The iteration count is stored next to the salt, so it can be raised: a
+			 password hashed with fewer iterations than the store uses (or with the single SHA-256 pass of version 1 files) is hashed
+			 again the next time its player logs in. The hash is worked out without holding the table lock.
+			 Changes are written straight into the mapping, and a committer thread forces them to disk. Everyone who changed
+			 something waits for the next flush, and every change made while a flush is running goes into the one after it, so many
+			 games finishing at the same time share a single flush (group commit).
+			 File layout: a 128-byte header (magic number, version, slots, accounts), then one 128-byte record per slot: state, name
+			 length, name hash, name (UTF-8), salt, password hash, wins, losses, ties and the iterations of the password hash.
+ */
+
+public class AccountStore implements AutoCloseable {
+
+	static final int MAGIC = 0x43344143; 		// "C4AC"
+	static final int VERSION = 2; 				// version 1 files had no iterations, they are upgraded when opened
+	static final int ITERATIONS = 210_000; 		// PBKDF2 iterations of new password hashes
+	static final int RECORD_BYTES = 128; 		// the header takes the space of one record
+	static final int MAX_NAME_BYTES = 48;
+	static final int INITIAL_SLOTS = 1 << 10;
+	static final int SEGMENT_SLOTS = 1 << 20; 	// slots in every mapped segment (128 MB), one mapping cannot be bigger than 2 GB
+
+	// layout of a record
+	private static final int STATE = 0; 		// 0 if the slot is empty, 1 if it holds an account
+	private static final int NAME_LENGTH = 1;
+	private static final int NAME_HASH = 4;
+	private static final int NAME = 8;
+	private static final int SALT = 56;
+	private static final int PASSWORD_HASH = 72;
+	private static final int WINS = 104;
+	private static final int LOSSES = 108;
+	private static final int TIES = 112;
+	private static final int HASH_ITERATIONS = 116; 	// 0 for the SHA-256 hash of version 1 files
+	private static final int SALT_BYTES = 16;
+	private static final int HASH_BYTES = 32;
+
+	private final Path file;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(); 	// the write lock is only taken to add an account
+	private final Object[] stripes = new Object[64]; 		// locks for updating the results of an account
+	private final SecureRandom random = new SecureRandom();
+	private final int iterations; 	// PBKDF2 iterations of new password hashes
+	private MappedByteBuffer header;
+	private MappedByteBuffer[] segments;
+	private int slots; 				// always a power of two
+	private int count; 				// accounts in the store
+
+	// group commit, guarded by the commit lock
+	private final Object commitLock = new Object();
+	private final Thread committer;
+	private long written; 			// changes made so far
+	private long flushed; 			// changes that are known to be on disk
+	private boolean closed;
+
+	/**
+	 * Name: AccountStore
+	 * Description: Constructor for the AccountStore class
+	 * @param file - path of the account file
+	 * @param iterations - PBKDF2 iterations of new password hashes
+	 * @throws IOException - if the file cannot be opened or is not an account file
+	 */
+	private AccountStore(Path file, int iterations) throws IOException {
+		this.file = file;
+		this.iterations = iterations;
+		for (int i = 0; i < stripes.length; i++) {
+			stripes[i] = new Object();
+		}
+		if (!Files.exists(file)) {
+			create(file, INITIAL_SLOTS);
+		}
+		map(file);
+		committer = new Thread(this::commitLoop, "account-committer");
+		committer.setDaemon(true);
+		committer.start();
+	}
+
+	/**
+	 * Name: open
+	 * Description: Opens the account file, or creates an empty one if it does not exist
+	 * @param file - path of the account file
+	 * @return - the account store
+	 * @throws IOException - if the file cannot be opened or is not an account file
+	 */
+	public static AccountStore open(Path file) throws IOException {
+		return new AccountStore(file, ITERATIONS);
+	}
+
+	/**
+	 * Name: open
+	 * Description: Opens the account file with a given cost for new password hashes, or creates an empty one if it does not exist.
+	 * 				Passwords that were hashed with fewer iterations are hashed again when their players log in.
+	 * @param file - path of the account file
+	 * @param iterations - PBKDF2 iterations of new password hashes
+	 * @return - the account store
+	 * @throws IOException - if the file cannot be opened or is not an account file
+	 * @throws IllegalArgumentException - if iterations is not positive
+	 */
+	public static AccountStore open(Path file, int iterations) throws IOException {
+		if (iterations <= 0) {
+			throw new IllegalArgumentException("The password hash needs at least one iteration");
+		}
+		return new AccountStore(file, iterations);
+	}
+
+	/**
+	 * Name: exists
+	 * Description: Checks whether an account exists
+	 * @param username - the username
+	 * @return - true if there is an account with the username
+	 */
+	public boolean exists(String username) {
+		byte[] name = nameBytes(username);
+		lock.readLock().lock();
+		try {
+			return find(name) >= 0;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Name: login
+	 * Description: Logs into an account. The password is hashed outside of the lock, and if its stored hash is cheaper than the
+	 * 				store's iteration count it is replaced with a new one.
+	 * @param username - the username
+	 * @param password - the password
+	 * @return - the player with the account's results, null if there is no such account or the password is wrong
+	 */
+	public Player login(String username, String password) {
+		byte[] name = nameBytes(username);
+		byte[] salt = new byte[SALT_BYTES];
+		byte[] stored = new byte[HASH_BYTES];
+		int storedIterations = readHash(name, salt, stored);
+		if (storedIterations < 0 || !MessageDigest.isEqual(stored, hash(salt, password, storedIterations))) {
+			return null;
+		}
+		if (storedIterations < iterations) {
+			rehash(name, stored, password);
+		}
+		Player player = new Player(username, password);
+		refresh(username, player);
+		return player;
+	}
+
+	/**
+	 * Name: create
+	 * Description: Creates a new account with no results and waits until it is on disk
+	 * @param username - the username
+	 * @param password - the password
+	 * @return - the player of the new account, null if the username is already taken
+	 * @throws IllegalArgumentException - if the username is empty or longer than MAX_NAME_BYTES in UTF-8
+	 */
+	public Player create(String username, String password) {
+		byte[] name = nameBytes(username);
+		byte[] salt = new byte[SALT_BYTES];
+		random.nextBytes(salt);
+		byte[] passwordHash = hash(salt, password, iterations);
+		lock.writeLock().lock();
+		try {
+			if (find(name) >= 0) {
+				return null;
+			}
+			if ((count + 1) * 4L > slots * 3L) {
+				grow();
+			}
+			insert(name, salt, passwordHash, iterations, 0, 0, 0);
+			header.putInt(12, count);
+		} finally {
+			lock.writeLock().unlock();
+		}
+		awaitCommit();
+		return new Player(username, password);
+	}
+
+	/**
+	 * Name: record
+	 * Description: Adds the result of a game to an account, copies the account's results into the player, and waits until the result
+	 * 				is on disk. The same account can be playing in more than one game, so the results are added on disk rather than
+	 * 				written from the player.
+	 * @param username - the username of the account
+	 * @param player - the player of the account
+	 * @param winner - the winner's piece, -1 for a tie
+	 * @throws IllegalArgumentException - if there is no such account
+	 */
+	public void record(String username, Player player, int winner) {
+		byte[] name = nameBytes(username);
+		lock.readLock().lock();
+		try {
+			int slot = find(name);
+			if (slot < 0) {
+				throw new IllegalArgumentException("No account named " + username);
+			}
+			int field = winner == ConnectFourAI.PLAYER_PIECE ? WINS : winner == ConnectFourAI.AI_PIECE ? LOSSES : TIES;
+			MappedByteBuffer segment = segment(slot);
+			int at = offset(slot) + field;
+			synchronized (stripes[slot & (stripes.length - 1)]) {
+				segment.putInt(at, segment.getInt(at) + 1);
+			}
+			read(slot, player);
+		} finally {
+			lock.readLock().unlock();
+		}
+		awaitCommit();
+	}
+
+	/**
+	 * Name: refresh
+	 * Description: Copies the account's results into the player (another game may have changed them)
+	 * @param username - the username of the account
+	 * @param player - the player of the account
+	 */
+	public void refresh(String username, Player player) {
+		byte[] name = nameBytes(username);
+		lock.readLock().lock();
+		try {
+			int slot = find(name);
+			if (slot >= 0) {
+				read(slot, player);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Name: readHash
+	 * Description: Copies the salt and the password hash of an account
+	 * @param name - the username in UTF-8
+	 * @param salt - filled with the salt
+	 * @param stored - filled with the password hash
+	 * @return - int value of the iterations of the hash (0 for SHA-256), -1 if there is no such account
+	 */
+	private int readHash(byte[] name, byte[] salt, byte[] stored) {
+		lock.readLock().lock();
+		try {
+			int slot = find(name);
+			if (slot < 0) {
+				return -1;
+			}
+			MappedByteBuffer segment = segment(slot);
+			int at = offset(slot);
+			synchronized (stripes[slot & (stripes.length - 1)]) { 	// the hash and its iterations change together
+				segment.get(at + SALT, salt);
+				segment.get(at + PASSWORD_HASH, stored);
+				return segment.getInt(at + HASH_ITERATIONS);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Name: rehash
+	 * Description: Replaces a password hash with one that uses the store's iteration count and a new salt, and waits until it is on
+	 * 				disk. Nothing is changed if another login replaced the hash first.
+	 * @param name - the username in UTF-8
+	 * @param old - the password hash that was checked
+	 * @param password - the correct password
+	 */
+	private void rehash(byte[] name, byte[] old, String password) {
+		byte[] salt = new byte[SALT_BYTES];
+		random.nextBytes(salt);
+		byte[] passwordHash = hash(salt, password, iterations);
+		byte[] current = new byte[HASH_BYTES];
+		lock.readLock().lock();
+		try {
+			int slot = find(name);
+			if (slot < 0) {
+				return;
+			}
+			MappedByteBuffer segment = segment(slot);
+			int at = offset(slot);
+			synchronized (stripes[slot & (stripes.length - 1)]) {
+				segment.get(at + PASSWORD_HASH, current);
+				if (!Arrays.equals(current, old)) {
+					return;
+				}
+				segment.put(at + SALT, salt);
+				segment.put(at + PASSWORD_HASH, passwordHash);
+				segment.putInt(at + HASH_ITERATIONS, iterations);
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		awaitCommit();
+	}
+
+	/**
+	 * Name: size
+	 * Description: Returns the number of accounts
+	 * @return - int value of the number of accounts
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return count;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Name: close
+	 * Description: Flushes every change to disk and stops the committer thread
+	 */
+	public void close() {
+		synchronized (commitLock) {
+			closed = true;
+			commitLock.notifyAll();
+		}
+		try {
+			committer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Name: awaitCommit
+	 * Description: Waits until every change made so far by this thread is on disk
+	 */
+	private void awaitCommit() {
+		synchronized (commitLock) {
+			long mine = ++written;
+			commitLock.notifyAll();
+			while (flushed < mine && !closed) {
+				try {
+					commitLock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt(); 	// the change is still flushed, just without waiting for it
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Name: commitLoop
+	 * Description: The committer thread. Flushes the mapping whenever there are changes, then wakes up everyone whose changes were
+	 * 				made before the flush started.
+	 */
+	private void commitLoop() {
+		while (true) {
+			long target;
+			synchronized (commitLock) {
+				while (written == flushed && !closed) {
+					try {
+						commitLock.wait();
+					} catch (InterruptedException e) { 	// only stopped by close()
+					}
+				}
+				if (written == flushed) {
+					return; 			// closed with nothing left to flush
+				}
+				target = written;
+			}
+			lock.readLock().lock(); 	// the mapping cannot be replaced while it is being flushed
+			try {
+				force();
+			} finally {
+				lock.readLock().unlock();
+			}
+			synchronized (commitLock) {
+				flushed = target;
+				commitLock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Name: find
+	 * Description: Looks up the slot of an account (the caller holds the lock)
+	 * @param name - the username in UTF-8
+	 * @return - int value of the slot, -1 if there is no such account
+	 */
+	private int find(byte[] name) {
+		int nameHash = nameHash(name);
+		for (int slot = nameHash & (slots - 1); ; slot = (slot + 1) & (slots - 1)) {
+			MappedByteBuffer segment = segment(slot);
+			int at = offset(slot);
+			if (segment.get(at + STATE) == 0) {
+				return -1;
+			}
+			if (segment.getInt(at + NAME_HASH) == nameHash && segment.get(at + NAME_LENGTH) == name.length
+					&& nameEquals(segment, at, name)) {
+				return slot;
+			}
+		}
+	}
+
+	/**
+	 * Name: insert
+	 * Description: Writes a new account into the first empty slot after its hash (the caller holds the write lock)
+	 * @param name - the username in UTF-8
+	 * @param salt - the salt of the password hash
+	 * @param passwordHash - the salted password hash
+	 * @param hashIterations - the iterations of the password hash
+	 * @param wins - the number of wins
+	 * @param losses - the number of losses
+	 * @param ties - the number of ties
+	 * @return - int value of the slot
+	 */
+	private int insert(byte[] name, byte[] salt, byte[] passwordHash, int hashIterations, int wins, int losses, int ties) {
+		int nameHash = nameHash(name);
+		int slot = nameHash & (slots - 1);
+		while (segment(slot).get(offset(slot) + STATE) != 0) {
+			slot = (slot + 1) & (slots - 1);
+		}
+		MappedByteBuffer segment = segment(slot);
+		int at = offset(slot);
+		segment.put(at + NAME_LENGTH, (byte) name.length);
+		segment.putInt(at + NAME_HASH, nameHash);
+		segment.put(at + NAME, name);
+		segment.put(at + SALT, salt);
+		segment.put(at + PASSWORD_HASH, passwordHash);
+		segment.putInt(at + HASH_ITERATIONS, hashIterations);
+		segment.putInt(at + WINS, wins);
+		segment.putInt(at + LOSSES, losses);
+		segment.putInt(at + TIES, ties);
+		segment.put(at + STATE, (byte) 1); 		// last, so a half-written record is never found
+		count++;
+		return slot;
+	}
+
+	/**
+	 * Name: grow
+	 * Description: Copies every account into a new file with twice the slots and replaces the old file with it (the caller holds the
+	 * 				write lock). The old file stays in place until the new one is complete and on disk.
+	 * @throws IllegalStateException - if the new file cannot be written
+	 */
+	private void grow() {
+		Path next = file.resolveSibling(file.getFileName() + ".grow");
+		try {
+			force(); 				// changes waiting for the committer
+			MappedByteBuffer[] oldSegments = segments;
+			int oldSlots = slots;
+			create(next, slots * 2);
+			map(next);
+
+			// put every account back in
+			count = 0;
+			byte[] salt = new byte[SALT_BYTES];
+			byte[] passwordHash = new byte[HASH_BYTES];
+			for (int slot = 0; slot < oldSlots; slot++) {
+				MappedByteBuffer segment = oldSegments[slot / SEGMENT_SLOTS];
+				int at = offset(slot);
+				if (segment.get(at + STATE) != 0) {
+					byte[] name = new byte[segment.get(at + NAME_LENGTH)];
+					segment.get(at + NAME, name);
+					segment.get(at + SALT, salt);
+					segment.get(at + PASSWORD_HASH, passwordHash);
+					insert(name, salt, passwordHash, segment.getInt(at + HASH_ITERATIONS), segment.getInt(at + WINS),
+							segment.getInt(at + LOSSES), segment.getInt(at + TIES));
+				}
+			}
+			header.putInt(12, count);
+			force();
+			Files.move(next, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE); 	// the mapping stays valid
+		} catch (IOException e) {
+			throw new IllegalStateException("The account file could not be grown", e);
+		}
+	}
+
+	/**
+	 * Name: force
+	 * Description: Writes every change in the mapping to disk
+	 */
+	private void force() {
+		header.force();
+		for (MappedByteBuffer segment : segments) {
+			segment.force();
+		}
+	}
+
+	/**
+	 * Name: create
+	 * Description: Writes an empty account file
+	 * @param path - path of the new file
+	 * @param slots - number of slots, a power of two
+	 * @throws IOException - if the file cannot be written
+	 */
+	private static void create(Path path, int slots) throws IOException {
+		try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer first = out.map(FileChannel.MapMode.READ_WRITE, 0, RECORD_BYTES);
+			first.putInt(0, MAGIC);
+			first.putInt(4, VERSION);
+			first.putInt(8, slots);
+			first.putInt(12, 0);
+			out.write(java.nio.ByteBuffer.allocate(1), RECORD_BYTES * (slots + 1L) - 1); 	// the empty slots are never written
+			first.force();
+			out.force(true);
+		}
+	}
+
+	/**
+	 * Name: map
+	 * Description: Maps the header and the segments of an account file. The mappings stay valid after the file is closed.
+	 * @param path - path of the account file
+	 * @throws IOException - if the file cannot be opened or is not an account file
+	 */
+	private void map(Path path) throws IOException {
+		try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MappedByteBuffer first = source.map(FileChannel.MapMode.READ_WRITE, 0, RECORD_BYTES);
+			int fileSlots = first.getInt(8);
+			int version = first.getInt(4);
+			if (first.getInt(0) != MAGIC || version < 1 || version > VERSION || Integer.bitCount(fileSlots) != 1
+					|| source.size() != RECORD_BYTES * (fileSlots + 1L)) {
+				throw new IOException("Not an account file");
+			}
+			if (version < VERSION) {
+				first.putInt(4, VERSION); 	// the iterations of version 1 records are 0, which marks their SHA-256 hashes
+				first.force();
+			}
+			MappedByteBuffer[] mapped = new MappedByteBuffer[(fileSlots + SEGMENT_SLOTS - 1) / SEGMENT_SLOTS];
+			for (int i = 0; i < mapped.length; i++) {
+				long bytes = (long) Math.min(SEGMENT_SLOTS, fileSlots - i * SEGMENT_SLOTS) * RECORD_BYTES;
+				mapped[i] = source.map(FileChannel.MapMode.READ_WRITE, RECORD_BYTES * (1 + (long) i * SEGMENT_SLOTS), bytes);
+			}
+			header = first;
+			segments = mapped;
+			slots = fileSlots;
+			count = first.getInt(12);
+		}
+	}
+
+	/**
+	 * Name: read
+	 * Description: Copies the results of an account into a player
+	 * @param slot - the slot of the account
+	 * @param player - the player
+	 */
+	private void read(int slot, Player player) {
+		MappedByteBuffer segment = segment(slot);
+		int at = offset(slot);
+		synchronized (player) {
+			player.wins = segment.getInt(at + WINS);
+			player.losses = segment.getInt(at + LOSSES);
+			player.ties = segment.getInt(at + TIES);
+		}
+	}
+
+	/**
+	 * Name: segment
+	 * Description: Returns the mapped segment that holds a slot
+	 * @param slot - the slot
+	 * @return - the segment
+	 */
+	private MappedByteBuffer segment(int slot) {
+		return segments[slot / SEGMENT_SLOTS];
+	}
+
+	/**
+	 * Name: offset
+	 * Description: Returns the position of a slot's record inside its segment
+	 * @param slot - the slot
+	 * @return - int value of the byte offset
+	 */
+	private static int offset(int slot) {
+		return (slot % SEGMENT_SLOTS) * RECORD_BYTES;
+	}
+
+	/**
+	 * Name: nameEquals
+	 * Description: Compares the name stored in a record with a name
+	 * @param segment - the segment of the record
+	 * @param at - the offset of the record
+	 * @param name - the username in UTF-8
+	 * @return - true if the names are the same
+	 */
+	private static boolean nameEquals(MappedByteBuffer segment, int at, byte[] name) {
+		for (int i = 0; i < name.length; i++) {
+			if (segment.get(at + NAME + i) != name[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Name: isValidName
+	 * Description: Checks whether a username can be stored (1 to MAX_NAME_BYTES bytes in UTF-8)
+	 * @param username - the username
+	 * @return - true if the username can be stored
+	 */
+	public static boolean isValidName(String username) {
+		int length = username.getBytes(StandardCharsets.UTF_8).length;
+		return length > 0 && length <= MAX_NAME_BYTES;
+	}
+
+	/**
+	 * Name: nameBytes
+	 * Description: Encodes a username in UTF-8
+	 * @param username - the username
+	 * @return - byte[] of the encoded username
+	 * @throws IllegalArgumentException - if the username is empty or longer than MAX_NAME_BYTES
+	 */
+	private static byte[] nameBytes(String username) {
+		byte[] name = username.getBytes(StandardCharsets.UTF_8);
+		if (name.length == 0 || name.length > MAX_NAME_BYTES) {
+			throw new IllegalArgumentException("A username has to be 1 to " + MAX_NAME_BYTES + " bytes long");
+		}
+		return name;
+	}
+
+	/**
+	 * Name: nameHash
+	 * Description: Hashes a username (the same on every run, so it can be stored in the file)
+	 * @param name - the username in UTF-8
+	 * @return - int value of the hash
+	 */
+	private static int nameHash(byte[] name) {
+		long h = Arrays.hashCode(name);
+		return (int) Tablebase.mix(h);
+	}
+
+	/**
+	 * Name: hash
+	 * Description: Hashes a password with a salt
+	 * @param salt - the salt of the account
+	 * @param password - the password
+	 * @param hashIterations - PBKDF2 iterations, 0 for the single SHA-256 pass of version 1 files
+	 * @return - byte[] of the hash
+	 */
+	private static byte[] hash(byte[] salt, String password, int hashIterations) {
+		try {
+			if (hashIterations == 0) {
+				MessageDigest digest = MessageDigest.getInstance("SHA-256");
+				digest.update(salt);
+				return digest.digest(password.getBytes(StandardCharsets.UTF_8));
+			}
+			PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, hashIterations, HASH_BYTES * 8);
+			try {
+				return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+			} finally {
+				spec.clearPassword();
+			}
+		} catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+			throw new IllegalStateException("The password hash is missing", e); 	// every Java platform has both
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package ICS4U1;
+
+import java.util.List;
+
+/*
+Class: Analysis.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: The result of Engine.analyse(): the exact heuristic value of the best few columns (or every column), best first, each one
+			 with the line of play the search expects after it.
+ */
+
+public class Analysis {
+
+	// one analysed column
+	public static class Line {
+		final int column; 			// the column
+		final int score; 			// exact heuristic value of the column at the analysed depth
+		final int[] pv; 			// expected line of play, starting with the column
+
+		/**
+		 * Name: Line
+		 * Description: Constructor for the Line class
+		 * @param column - the column
+		 * @param score - exact heuristic value of the column
+		 * @param pv - expected line of play, starting with the column
+		 */
+		public Line(int column, int score, int[] pv) {
+			this.column = column;
+			this.score = score;
+			this.pv = pv;
+		}
+
+		public String toString() {
+			StringBuilder moves = new StringBuilder();
+			for (int col : pv) {
+				moves.append(col + 1);
+			}
+			return "column " + (column + 1) + ", score " + score + ", line " + moves;
+		}
+	}
+
+	final List<Line> lines; 		// best first
+	final int depth; 				// depth of the deepest finished iteration
+	final long nodes; 				// nodes searched
+	final long millis; 				// wall-clock time of the analysis
+
+	/**
+	 * Name: Analysis
+	 * Description: Constructor for the Analysis class
+	 * @param lines - the analysed columns, best first
+	 * @param depth - depth of the deepest finished iteration
+	 * @param nodes - nodes searched
+	 * @param millis - wall-clock time of the analysis
+	 */
+	public Analysis(List<Line> lines, int depth, long nodes, long millis) {
+		this.lines = lines;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.millis = millis;
+	}
+
+	public String toString() {
+		StringBuilder text = new StringBuilder("depth " + depth + ", " + nodes + " nodes, " + millis + " ms");
+		for (Line line : lines) {
+			text.append("\n  ").append(line);
+		}
+		return text.toString();
+	}
+}
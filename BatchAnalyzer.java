@@ -0,0 +1,222 @@
+package ICS4U1;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayDeque;
+import java.util.concurrent.*;
+
+/*
+Class: BatchAnalyzer.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Offline analysis of large position files. Reads one move sequence per line (columns 1-7, the AI moving first), searches
+			 the positions in parallel on every core to a fixed depth, and writes one line per position in the same order as the input:
+			 the moves, the best column, its heuristic value and the number of nodes searched. Every worker has its own small engine that
+			 is cleared before each position, so the results do not depend on the order the positions were searched in. Only a small
+			 window of positions is in flight at any time, so memory stays the same however big the input is. Every few thousand
+			 positions the input and output offsets are saved to a checkpoint file, and a run that was stopped picks up from the last
+			 checkpoint when started again.
+			 Usage: java ICS4U1.BatchAnalyzer <input file> <output file> [depth] [threads]
+ */
+
+public class BatchAnalyzer {
+
+	static final int CHECKPOINT_EVERY = 4096; 		// positions written between two checkpoints
+	static final int TASKS_PER_THREAD = 4; 			// positions in flight for every thread
+	static final int TT_SIZE_MB = 2; 				// table size of every worker's engine
+
+	private final ThreadLocal<Engine> engines; 		// one engine for every worker
+	private final SearchLimits limits;
+
+	/**
+	 * Name: BatchAnalyzer
+	 * Description: Constructor for the BatchAnalyzer class
+	 * @param depth - the searching depth
+	 * @param ttMegabytes - table size of every worker's engine
+	 */
+	public BatchAnalyzer(int depth, int ttMegabytes) {
+		this.engines = ThreadLocal.withInitial(() -> new Engine(ttMegabytes, 1, null));
+		this.limits = SearchLimits.depth(depth);
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		if (args.length < 2) {
+			System.out.println("Usage: java ICS4U1.BatchAnalyzer <input file> <output file> [depth] [threads]");
+			return;
+		}
+		Path input = Paths.get(args[0]);
+		Path output = Paths.get(args[1]);
+		int depth = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+		BatchAnalyzer analyzer = new BatchAnalyzer(depth, TT_SIZE_MB);
+		long start = System.nanoTime();
+		long count = analyzer.run(input, output, Paths.get(args[1] + ".checkpoint"), threads);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("Analysed %d positions in %.1f s (%.1f positions/s)%n", count, seconds, count / seconds);
+	}
+
+	/**
+	 * Name: run
+	 * Description: Analyses every position of the input file that is not covered by the checkpoint yet
+	 * @param input - the file of move sequences
+	 * @param output - the file the results are written to
+	 * @param checkpoint - the file holding the input and output offsets of the last checkpoint
+	 * @param threads - number of worker threads
+	 * @return - long value of the number of positions analysed by this run
+	 * @throws IOException - if a file cannot be read or written
+	 * @throws InterruptedException - if the run is interrupted while waiting for a worker
+	 */
+	public long run(Path input, Path output, Path checkpoint, int threads) throws IOException, InterruptedException {
+		long[] offsets = readCheckpoint(checkpoint); 		// {input offset, output offset}
+		ExecutorService workers = Executors.newFixedThreadPool(threads, GameServer.daemonThreads("batch-worker-"));
+		ArrayDeque<Future<String>> pending = new ArrayDeque<>(); 	// positions in flight, in input order
+		ArrayDeque<Long> pendingEnds = new ArrayDeque<>(); 			// the input offset right after each of them
+		int window = threads * TASKS_PER_THREAD;
+		long count = 0;
+
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(input));
+				FileChannel channel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+				OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+			// throw away whatever was written after the checkpoint, it is written again
+			channel.truncate(offsets[1]);
+			channel.position(offsets[1]);
+			in.skipNBytes(offsets[0]);
+
+			long inputOffset = offsets[0];
+			long outputOffset = offsets[1];
+			StringBuilder line = new StringBuilder();
+			while (true) {
+				int bytes = readLine(in, line);
+				if (bytes < 0 && pending.isEmpty()) {
+					break;
+				}
+				if (bytes >= 0) {
+					inputOffset += bytes;
+					String moves = line.toString().trim();
+					pending.add(workers.submit(() -> analyse(moves)));
+					pendingEnds.add(inputOffset);
+					if (pending.size() < window) {
+						continue;
+					}
+				}
+
+				// write the oldest result, waiting for it if needed
+				byte[] result = (await(pending.poll()) + "\n").getBytes(StandardCharsets.UTF_8);
+				out.write(result);
+				outputOffset += result.length;
+				long inputDone = pendingEnds.poll();
+				if (++count % CHECKPOINT_EVERY == 0 || (bytes < 0 && pending.isEmpty())) {
+					out.flush();
+					channel.force(false); 		// the results have to be on disk before the checkpoint points past them
+					writeCheckpoint(checkpoint, inputDone, outputOffset);
+				}
+			}
+		} finally {
+			workers.shutdownNow();
+		}
+		return count;
+	}
+
+	/**
+	 * Name: analyse
+	 * Description: Searches one position
+	 * @param moves - the move sequence of the position
+	 * @return - the output line of the position
+	 */
+	String analyse(String moves) {
+		try {
+			Position board = Position.fromMoves(moves, ConnectFourAI.AI_PIECE);
+			if (ConnectFourAI.isTerminalNode(board)) {
+				return moves + " over";
+			}
+			Engine engine = engines.get();
+			engine.clear();
+			SearchResult result = engine.bestMove(board, limits);
+			return moves + " " + (result.column + 1) + " " + result.score + " " + result.nodes;
+		} catch (IllegalArgumentException e) {
+			return moves + " invalid: " + e.getMessage();
+		}
+	}
+
+	/**
+	 * Name: await
+	 * Description: Waits for the result of a worker
+	 * @param result - the worker's future
+	 * @return - the output line
+	 * @throws InterruptedException - if the run is interrupted while waiting
+	 */
+	private static String await(Future<String> result) throws InterruptedException {
+		try {
+			return result.get();
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("The analysis failed", e.getCause());
+		}
+	}
+
+	/**
+	 * Name: readLine
+	 * Description: Reads one line of the input into the buffer, counting its bytes so that the checkpoint knows where the line ended
+	 * @param in - the input stream
+	 * @param line - the buffer the line is stored in (without the line break)
+	 * @return - int value of the number of bytes read including the line break, -1 at the end of the input
+	 * @throws IOException - if the input cannot be read
+	 */
+	static int readLine(InputStream in, StringBuilder line) throws IOException {
+		line.setLength(0);
+		int bytes = 0;
+		int b;
+		while ((b = in.read()) != -1) {
+			bytes++;
+			if (b == '\n') {
+				return bytes;
+			}
+			line.append((char) b); 		// move sequences are plain ASCII
+		}
+		return bytes == 0 ? -1 : bytes;
+	}
+
+	/**
+	 * Name: readCheckpoint
+	 * Description: Reads the offsets saved by the last checkpoint
+	 * @param checkpoint - the checkpoint file
+	 * @return - long[] of the input offset and the output offset, both 0 if there is no checkpoint
+	 * @throws IOException - if the checkpoint cannot be read
+	 */
+	static long[] readCheckpoint(Path checkpoint) throws IOException {
+		if (!Files.exists(checkpoint)) {
+			return new long[2];
+		}
+		String[] parts = new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim().split("\\s+");
+		try {
+			return new long[] {Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+		} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+			throw new IOException("Invalid checkpoint file " + checkpoint);
+		}
+	}
+
+	/**
+	 * Name: writeCheckpoint
+	 * Description: Saves the offsets of the last written position. The new file is forced to disk and then replaces the old one in
+	 * 				one step, so a run that is killed (or a machine that loses power) while saving still leaves a whole checkpoint behind.
+	 * @param checkpoint - the checkpoint file
+	 * @param inputOffset - the input offset right after the last written position
+	 * @param outputOffset - the output offset right after its result
+	 * @throws IOException - if the checkpoint cannot be written
+	 */
+	static void writeCheckpoint(Path checkpoint, long inputOffset, long outputOffset) throws IOException {
+		Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer text = ByteBuffer.wrap((inputOffset + " " + outputOffset + "\n").getBytes(StandardCharsets.UTF_8));
+			while (text.hasRemaining()) {
+				channel.write(text);
+			}
+			channel.force(true);
+		}
+		Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
@@ -2,6 +2,7 @@ package ICS4U1;
 
 import java.util.*;
 import java.io.*;
+import java.nio.file.*;
 
 /*
 Class: ConnectFourAI.java
@@ -40,19 +41,78 @@ public class ConnectFourAI {
 	}
 
 	// initialize variables
-	static Scanner sc = new Scanner(System.in);
-	static char[][] board = new char[6][7];
-	static String usernameInput;
 	static final int PLAYER_PIECE = 1;
 	static final int AI_PIECE = 0;
 	static final int ROW = 6;
 	static final int COL = 7;
-	static int firstTurn; 			// who gets to go first (0 = AI, 1 = player), used in boardScore()
-	static Map<String, Player> accounts = new HashMap<>(); // map to store the accounts
+	static final int TT_SIZE_MB = 64; 	// memory budget of the transposition table
+	static final long MOVE_TIME_MS = 1000; 	// how long the AI thinks about every move
+	static final boolean PONDER = true; 		// keep searching while the player is thinking
+	static final String BOOK_FILE = "openingbook.bin"; 	// made by OpeningBookGenerator
+	static final String TABLEBASE_FILE = "tablebase.bin"; 	// made by TablebaseGenerator
+	static final String ACCOUNTS_FILE = "accounts.db"; 		// the players' accounts, created if it does not exist
+	static final String GAMES_FILE = "games.bin"; 			// every finished game is added to it (see GameRecord)
+
+	// state of one console game, the engine itself can be shared by many games
+	final Scanner sc;
+	final Engine engine;
+	final AccountStore accounts; 			// the players' accounts
+	final GameRecordWriter records; 		// where the finished games are saved
+	final GameRecord record = new GameRecord(); 	// the moves of the current game
+	Player player; 							// the account of the logged in player
+	Position board = new Position();
+	String usernameInput;
+
+	/**
+	 * Name: ConnectFourAI
+	 * Description: Constructor for the ConnectFourAI class
+	 * @param sc - the scanner the player's input is read from
+	 * @param engine - the engine that finds the AI's moves
+	 * @param accounts - the accounts of the players
+	 * @param records - where the finished games are saved
+	 */
+	public ConnectFourAI(Scanner sc, Engine engine, AccountStore accounts, GameRecordWriter records) {
+		this.sc = sc;
+		this.engine = engine;
+		this.accounts = accounts;
+		this.records = records;
+	}
 
 	public static void main(String[] args) {
 		// TODO Auto-generated method stub
 
+		// open the opening book if there is one
+		OpeningBook book = null;
+		try {
+			book = OpeningBook.open(Paths.get(BOOK_FILE));
+		} catch (NoSuchFileException e) { 		// no book, every move is searched
+		} catch (IOException e) {
+			System.out.println("The opening book could not be loaded: " + e.getMessage());
+		}
+
+		// open the endgame tablebase if there is one
+		Tablebase tablebase = null;
+		try {
+			tablebase = Tablebase.open(Paths.get(TABLEBASE_FILE));
+		} catch (NoSuchFileException e) { 		// no tablebase, the endgame is searched
+		} catch (IOException e) {
+			System.out.println("The endgame tablebase could not be loaded: " + e.getMessage());
+		}
+
+		Engine engine = new Engine(TT_SIZE_MB, Runtime.getRuntime().availableProcessors(), book, tablebase, true);
+		try (AccountStore accounts = AccountStore.open(Paths.get(ACCOUNTS_FILE));
+				GameRecordWriter records = GameRecordWriter.open(Paths.get(GAMES_FILE))) {
+			new ConnectFourAI(new Scanner(System.in), engine, accounts, records).play();
+		} catch (IOException e) {
+			System.out.println("The accounts or the game records could not be loaded: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Name: play
+	 * Description: Logs the player in and plays games against the AI until the player chooses to stop
+	 */
+	public void play() {
 		// start of the game
 		gameStart();
 		String continueDecision = "";
@@ -61,31 +121,29 @@ public class ConnectFourAI {
 			System.out.println();
 			System.out.println("Starting the game...");
 
-			// filling the board/resetting the board
-			for (int i = 0; i < ROW; i++) {
-				Arrays.fill(board[i], '*');
-			}
+			// resetting the board, who goes first is decided at random
+			int firstTurn = (int) (Math.random() * 2);
+			board = new Position(firstTurn);
+			record.reset(firstTurn == 0 ? AI_PIECE : PLAYER_PIECE, true);
 
 			// print out the initial board
 			printBoard(board);
 
-			firstTurn = (int) (Math.random() * 2);
 			int turn = firstTurn;
 			do {
 				if (turn == 0) { // AI's turn
 					// gets the column and row
 					System.out.println("The AI is making a move...");
-					int c = miniMax(18, board, Integer.MIN_VALUE, Integer.MAX_VALUE, true).column; // takes the column
-																									// that generates
-																									// the best score
-					int r = nextOpenRow(board, c);
-					dropPiece(board, r, c, AI_PIECE);
+					SearchResult result = engine.bestMove(board, SearchLimits.time(MOVE_TIME_MS)); 	// takes the column that generates the best score
+					record.add(result);
+					dropPiece(board, result.column, AI_PIECE);
 					printBoard(board);
 					turn = 1; 					// Player's turn next
 				} 
 				else if (turn == 1) { 		// Player's turn, else if to check isTerminalNode() every time a move is placed)
 					int playerChoice = -1;
 					boolean flag = false;
+					PonderSearch ponder = PONDER ? engine.ponder(board) : null; 	// the AI keeps thinking while the player does
 
 					// user prompt
 					do {
@@ -113,25 +171,27 @@ public class ConnectFourAI {
 							flag = true;
 						}
 					} while (playerChoice < 0 || playerChoice > 6 || flag);
+					if (ponder != null) {
+						ponder.stop(); 				// the AI's own search picks up from the table
+					}
 
-					// get row value, drop the piece and print the board
-					int r = nextOpenRow(board, playerChoice);
-					dropPiece(board, r, playerChoice, PLAYER_PIECE);
+					// drop the piece and print the board
+					dropPiece(board, playerChoice, PLAYER_PIECE);
+					record.add(playerChoice);
 					printBoard(board);
 					turn = 0; 					// AI's turn next
 				}
 			} while (!isTerminalNode(board)); 	// only ends when the game ends
 
 			// End game
-			if (winBoard(board, AI_PIECE)) {
+			int winner = recordResult(accounts, usernameInput, player, board);
+			saveGame(records, record, board);
+			if (winner == AI_PIECE) {
 				System.out.println("The AI won");
-				accounts.get(usernameInput).losses++;
-			} else if (winBoard(board, PLAYER_PIECE)) {
+			} else if (winner == PLAYER_PIECE) {
 				System.out.println("The player won");
-				accounts.get(usernameInput).wins++;
 			} else {
 				System.out.println("Tie");
-				accounts.get(usernameInput).ties++;
 			}
 
 			// user prompt to ask for continue decision
@@ -151,115 +211,11 @@ public class ConnectFourAI {
 
 	}
 
-	/**
-	 * Name: miniMax
-	 * Description: This method calculates and returns the best possible score and the column that generates that score given the searching depth
-	 * @param depth - The current searching depth of the AI
-	 * @param board - 2-D array for the current board
-	 * @param alpha - Variable for alpha-beta pruning
-	 * @param beta - Variable for alpha-beta pruning
-	 * @param maximizingPlayer - Boolean value to indicate which player's turn it is (maximizing or minimizing player)
-	 * @return Pair - returns the best pair that contains the best column and the best heuristic value of the board
-	 */
-	public static Pair miniMax(int depth, char[][] board, int alpha, int beta, boolean maximizingPlayer) {
-
-		// base cases
-		if (depth == 0 || isTerminalNode(board)) {
-			Pair pair = new Pair(-1, boardScore(board)); 	// -1 is a place holder, it will never get used as it will get updated right after it is returned;
-			return pair;
-		}
-
-		// getting all the available nodes
-		LinkedList<Pair> tempList = pickBestMove(board, maximizingPlayer);
-		PriorityQueue<Pair> queue;
-		if (maximizingPlayer) {
-			queue = new PriorityQueue<>(Collections.reverseOrder()); // decreasing order for the AI (highest value first)
-			int count = tempList.size();
-			for (int i = 0; i < count; i++) {
-				queue.add(tempList.poll());
-			}
-		} else {
-			queue = new PriorityQueue<>(); // increasing order for the player (lowest value first)
-			int count = tempList.size();
-			for (int i = 0; i < count; i++) {
-				queue.add(tempList.poll());
-			}
-		}
-
-		//is true, maximizing player's turn, (the AI)
-		if (maximizingPlayer) {
-			Pair pair = new Pair(-1, 0); 		// initialize the variables
-			int value = Integer.MIN_VALUE;
-
-			for (int i = 0; i < queue.size(); i++) { // loop through every available node
-				Pair temp = queue.poll();
-				int child = temp.column;
-
-				// storing values into a temp new array
-				char[][] boardCopy = new char[6][7];
-				for (int row = 0; row < ROW; row++) {
-					for (int col = 0; col < COL; col++) {
-						boardCopy[row][col] = board[row][col];
-					}
-				}
-
-				// recursively get all the possible values and return the highest possible value
-				int r = nextOpenRow(boardCopy, child);
-				dropPiece(boardCopy, r, child, AI_PIECE); 								// drop ai piece into the boardCopy
-				int nodeValue = miniMax(depth - 1, boardCopy, alpha, beta, false).val; 	// minimizing player next turn, taking the value of the node
-				if (nodeValue > value) {
-					value = nodeValue;
-					pair = new Pair(child, value); 			// updating pair to be returned
-				}
-				// alpha beta pruning (can be found on google)
-				alpha = Math.max(value, alpha);
-				if (alpha >= beta) {
-					break;
-				}
-			}
-			return pair;
-		}
-		// is false, minimizing player's turn, pretending to be the player
-		else {
-			Pair pair = new Pair(-1, 0); 
-			int value = Integer.MAX_VALUE;
-
-			for (int i = 0; i < queue.size(); i++) { 			// loop through every available node
-				Pair temp = queue.poll();
-				int child = temp.column;
-
-				// storing values into a temp new array
-				char[][] boardCopy = new char[6][7];
-				for (int row = 0; row < ROW; row++) {
-					for (int col = 0; col < COL; col++) {
-						boardCopy[row][col] = board[row][col];
-					}
-				}
-
-				// recursively get all the possible values and return the lowest possible value
-				int r = nextOpenRow(boardCopy, child);
-				dropPiece(boardCopy, r, child, PLAYER_PIECE); 			// drop player piece into boardCopy
-				int nodeValue = miniMax(depth - 1, boardCopy, alpha, beta, true).val; // minimizing player next turn, taking the value of the node
-				if (nodeValue < value) {
-					value = nodeValue;
-					pair = new Pair(child, value);
-				}
-				// alpha beta pruning (can be found on google)
-				beta = Math.min(value, beta);
-				if (alpha >= beta) {
-					break;
-				}
-			}
-			return pair;
-		}
-	}
-
-
 	/**
 	 * Name: gameStart
 	 * Description: This method asks the users for their usernames (log in, create new account)...
 	 */
-	public static void gameStart() {
+	public void gameStart() {
 
 		usernameInput = "";
 
@@ -269,12 +225,17 @@ public class ConnectFourAI {
 			System.out.println("=================================================================================");
 			System.out.println("Please enter your username: ");
 			usernameInput = sc.nextLine();
+			if (!AccountStore.isValidName(usernameInput)) {
+				System.out.println("Usernames have to be 1 to " + AccountStore.MAX_NAME_BYTES + " characters long, please try again.\n");
+				continue;
+			}
 
-			if (accounts.containsKey(usernameInput)) { // if the account already exist
+			if (accounts.exists(usernameInput)) { // if the account already exist
 				System.out.println("Please enter your password: ");
 				String passwordInput = sc.nextLine();
 
-				if (accounts.get(usernameInput).login(passwordInput)) { // if password is correct
+				player = accounts.login(usernameInput, passwordInput);
+				if (player != null) { // if password is correct
 					System.out.println("Welcome back, " + usernameInput);
 					break;
 				}
@@ -285,10 +246,11 @@ public class ConnectFourAI {
 						"This account is not in our files, please enter a password of your choice to create a new account: ");
 				String passwordInput = sc.nextLine();
 
-				accounts.put(usernameInput, new Player(usernameInput, passwordInput));
-
-				System.out.println("\nAccount created!");
-				break;
+				player = accounts.create(usernameInput, passwordInput);
+				if (player != null) { // null if someone else took the username in the meantime
+					System.out.println("\nAccount created!");
+					break;
+				}
 			}
 		}
 	}
@@ -298,23 +260,67 @@ public class ConnectFourAI {
 	 * Name: scoreOutput
 	 * Description: This method outputs the current score of the player (stored in the player's account)
 	 */
-	public static void scoreOutput() {
+	public void scoreOutput() {
 		// outputs the current score
 		System.out.println();
 		System.out.println();
-		System.out.println(accounts.get(usernameInput));
+		accounts.refresh(usernameInput, player); 	// the account may have played somewhere else too
+		System.out.println(player);
+	}
+
+
+	/**
+	 * Name: recordResult
+	 * Description: Adds the result of a finished game to the player's account and waits until it is saved (the same account can be
+	 * 				playing in more than one game)
+	 * @param accounts - the players' accounts
+	 * @param username - the player's username
+	 * @param player - the player's account, its results are updated
+	 * @param board - bitboard of the finished board
+	 * @return - int value of the winner's piece, -1 for a tie
+	 */
+	public static int recordResult(AccountStore accounts, String username, Player player, Position board) {
+		int winner;
+		if (winBoard(board, AI_PIECE)) {
+			winner = AI_PIECE;
+		} else if (winBoard(board, PLAYER_PIECE)) {
+			winner = PLAYER_PIECE;
+		} else {
+			winner = -1;
+		}
+		accounts.record(username, player, winner);
+		return winner;
+	}
+
+
+	/**
+	 * Name: saveGame
+	 * Description: Adds a finished game to the game records, and writes it to the file straight away so that it is kept even if the
+	 * 				program is stopped
+	 * @param records - where the games are saved
+	 * @param record - the moves of the game
+	 * @param board - the final board
+	 */
+	public static void saveGame(GameRecordWriter records, GameRecord record, Position board) {
+		record.finish(board);
+		try {
+			records.write(record);
+			records.flush();
+		} catch (IOException e) {
+			System.out.println("The game could not be saved: " + e.getMessage());
+		}
 	}
 
 
 	/**
 	 * Name: printBoard
 	 * Description: This method outputs the current conditions of the board
-	 * @param board - 2-D char array for the current board to be outputted
+	 * @param board - bitboard of the current board to be outputted
 	 */
-	public static void printBoard(char[][] board) {
+	public static void printBoard(Position board) {
 		for (int row = 0; row < ROW; row++) {
 			for (int col = 0; col < COL; col++) {
-				System.out.print(board[row][col] + " ");
+				System.out.print(board.cell(row, col) + " ");
 			}
 			System.out.println();
 		}
@@ -326,77 +332,36 @@ public class ConnectFourAI {
 	/**
 	 * Name: winBoard
 	 * Description: This method checks if the game has ended by either side winning
-	 * @param board - 2-D char array to store the current board
+	 * @param board - bitboard of the current board
 	 * @param piece - int value to determine who the program is checking (player or AI)
 	 * @return - boolean value to indicate whether a winning condition is reached or not
 	 */
-	public static boolean winBoard(char[][] board, int piece) {
-		piece = piece + 48; 	// change to char value
-		// horizontal
-		for (int row = 0; row < ROW; row++) {
-			for (int col = 0; col < COL - 3; col++) {
-				if (board[row][col] == piece && board[row][col + 1] == piece && board[row][col + 2] == piece
-						&& board[row][col + 3] == piece) {
-					return true;
-				}
-			}
-		}
-
-		// vertical
-		for (int col = 0; col < COL; col++) {
-			for (int row = 0; row < ROW - 3; row++) {
-				if (board[row][col] == piece && board[row + 1][col] == piece && board[row + 2][col] == piece
-						&& board[row + 3][col] == piece) {
-					return true;
-				}
-			}
-		}
-
-		// negatively sloped diagonals
-		for (int row = 0; row < ROW - 3; row++) {
-			for (int col = 0; col < COL - 3; col++) {
-				if (board[row][col] == piece && board[row + 1][col + 1] == piece && board[row + 2][col + 2] == piece
-						&& board[row + 3][col + 3] == piece) {
-					return true;
-				}
-			}
-		}
-
-		// positively sloped diagonals
-		for (int row = 3; row < ROW; row++) {
-			for (int col = 0; col < COL - 3; col++) {
-				if (board[row][col] == piece && board[row - 1][col + 1] == piece && board[row - 2][col + 2] == piece
-						&& board[row - 3][col + 3] == piece) {
-					return true;
-				}
-			}
-		}
-
-		return false;
+	public static boolean winBoard(Position board, int piece) {
+		return board.hasFour(piece); 	// kept up to date with every move, only the windows through the last piece are checked
 	}
 
 
 	/**
 	 * Name: isTerminalNode
 	 * Description: Checks if the game has ended by either side winning or by ties
-	 * @param board - 2-D char array to store the current board
+	 * @param board - bitboard of the current board
 	 * @return - boolean value to indicate whether the game has ended or not
 	 */
-	public static boolean isTerminalNode(char[][] board) {
-		return winBoard(board, PLAYER_PIECE) || winBoard(board, AI_PIECE) || availableNodes(board).size() == 0;
+	public static boolean isTerminalNode(Position board) {
+		return board.isOver();
 	}
 
 
 	/**
 	 * Name: availableNodes
 	 * Description: This method checks for the available columns on the board where a move can be placed
-	 * @param board - 2-D char array to store the current board
+	 * @param board - bitboard of the current board
 	 * @return - LinkedList<Integer> to store the available nodes
 	 */
-	public static LinkedList<Integer> availableNodes(char[][] board) {
+	public static LinkedList<Integer> availableNodes(Position board) {
 		LinkedList<Integer> queue = new LinkedList<>();
 		for (int i = 0; i < COL; i++) {
-			if (board[0][i] == '*') {
+			if (board.canPlay(i)) {
 				queue.add(i);
 			}
 		}
@@ -407,196 +372,85 @@ public class ConnectFourAI {
 	/**
 	 * Name: nextOpenRow
 	 * Description: This method finds the next open row in the selected column (the row where the piece will fall to when dropped from this column)
-	 * @param board - 2-D char array to store the current board
+	 * @param board - bitboard of the current board
 	 * @param c - column number
 	 * @return - int value indicating the row number
 	 */
-	public static int nextOpenRow(char[][] board, int c) {
-		for (int i = ROW - 1; i >= 0; i--) { 			// starts from the bottom, searches up
-			if (board[i][c] == '*') {
-				return i;
-			}
-		}
-
-		// error (will never encounter due to the way this method is called)
-		return -1;
+	public static int nextOpenRow(Position board, int c) {
+		return board.nextOpenRow(c); 		// -1 if the column is full (will never encounter due to the way this method is called)
 	}
 
 
 	/**
 	 * Name: dropPiece
-	 * Description: This method updates the 2-D board array with the new piece
-	 * @param board - 2-D char array to store the current board
-	 * @param r - The row number at which the piece will be dropped to
+	 * Description: This method updates the board with the new piece
+	 * @param board - bitboard of the current board
 	 * @param c - The column number at which the piece will be dropped to
 	 * @param piece - The player's piece or the AI's piece
 	 */
-	public static void dropPiece(char[][] board, int r, int c, int piece) {
-		board[r][c] = (char) (piece + 48);
+	public static void dropPiece(Position board, int c, int piece) {
+		board.play(c, piece);
 	}
 
 
 	/**
 	 * Name: boardScore
-	 * Description: This method calculates and returns the total score of the board after evaluating the board
-	 * @param board - 2-D char array to store the current board
+	 * Description: This method returns the total score of the board, which the board's Evaluator keeps up to date as pieces are dropped
+	 * 				and taken back, so no window has to be rescanned
+	 * @param board - bitboard of the current board
 	 * @return - int value to indicate the heuristic score of the board
 	 */
-	public static int boardScore(char[][] board) {
-		int totalScore = 0;
-		int aiPieceCount = 0;
-		int playerPieceCount = 0;
-		int emptyCount = 0;
+	public static int boardScore(Position board) {
+		return board.eval.score(board);
+	}
 
-		// bonus marks for center column
-		for (int row = 0; row < ROW; row++) {
-			if (board[row][3] == (char) (AI_PIECE + 48)) {
-				totalScore += 20; 			// 20 points for every piece at the center column
-			}
-			if (board[row][3] == (char) (PLAYER_PIECE + 48)) {
-				totalScore -= 16; 			// take away 16 points for every enemy (player) piece at the center column
-			}
-		}
 
-		// check for row wins and threats
-		for (int row = 0; row < ROW; row++) {
-			for (int col = 0; col < COL - 3; col++) {
-				int c = -1; 			// gets the column number for the empty piece (where the threat is at)
-				int r = -1; 			// gets the row number for the empty piece
-				
-				// checking the window (size of 4)
-				for (int i = 0; i < 4; i++) {
-					if (board[row][col + i] == (char) (AI_PIECE + 48)) {
-						aiPieceCount++;
-					} else if (board[row][col + i] == (char) (PLAYER_PIECE + 48)) {
-						playerPieceCount++;
-					} else {
-						emptyCount++;
-						r = row;
-						c = col + i;
-					}
-				}
-				
-				// evaluate the window that the program currently checking
-				if (aiPieceCount == 4) {
-					return Integer.MAX_VALUE - 1;
-				}
-				if (playerPieceCount == 4) {
-					return Integer.MIN_VALUE + 1;
-				}
-				totalScore = evaluateWindow(totalScore, r, c, aiPieceCount, emptyCount, board, AI_PIECE);
-				totalScore = evaluateWindow(totalScore, r, c, playerPieceCount, emptyCount, board, PLAYER_PIECE);
+	/**
+	 * Name: scanBoardScore
+	 * Description: This method calculates and returns the total score of the board by evaluating every window on the board
+	 * 				(the incremental boardScore() always returns the same value)
+	 * @param board - bitboard of the current board
+	 * @return - int value to indicate the heuristic score of the board
+	 */
+	public static int scanBoardScore(Position board) {
+		long aiPieces = board.pieces[AI_PIECE];
+		long playerPieces = board.pieces[PLAYER_PIECE];
+		long mask = aiPieces | playerPieces;
+		long center = Position.columnMask(3);
+		EvalWeights weights = board.eval.weights;
 
-				// reset the values
-				aiPieceCount = 0;
-				playerPieceCount = 0;
-				emptyCount = 0;
+		// bonus marks for center column
+		int totalScore = weights.center * Long.bitCount(aiPieces & center); 		// 20 points (by default) for every piece at the center column
+		totalScore -= weights.centerPlayer * Long.bitCount(playerPieces & center); 	// take away 16 points (by default) for every enemy (player) piece at the center column
+
+		// check every window (size of 4) for wins and threats
+		for (int w = 0; w < Position.WINDOWS.length; w++) {
+			long window = Position.WINDOWS[w];
+			int aiPieceCount = Long.bitCount(aiPieces & window);
+			int playerPieceCount = Long.bitCount(playerPieces & window);
+			int emptyCount = 4 - aiPieceCount - playerPieceCount;
+
+			// evaluate the window that the program currently checking
+			if (aiPieceCount == 4) {
+				return Integer.MAX_VALUE - 1;
 			}
-		}
-
-		// check for column wins and threats
-		for (int col = 0; col < COL; col++) {
-			for (int row = 0; row < ROW - 3; row++) {
-				
-				// checking the window (size of 4)
-				for (int i = 0; i < 4; i++) {
-					if (board[row + i][col] == (char) (AI_PIECE + 48)) {
-						aiPieceCount++;
-					} else if (board[row + i][col] == (char) (PLAYER_PIECE + 48)) {
-						playerPieceCount++;
-					} else {
-						emptyCount++;
-					}
-				}
-				
-				// evaluate the window that the program currently checking
-				if (aiPieceCount == 4) {
-					return Integer.MAX_VALUE - 1;
-				}
-				if (playerPieceCount == 4) {
-					return Integer.MIN_VALUE + 1;
-				}
+			if (playerPieceCount == 4) {
+				return Integer.MIN_VALUE + 1;
+			}
+			if (Position.VERTICAL[w]) { 		// column threats are always playable right away
 				if (aiPieceCount == 3 && emptyCount == 1) {
-					totalScore += 70;
+					totalScore += weights.verticalThree;
 				}
 				if (playerPieceCount == 3 && emptyCount == 1) {
-					totalScore -= 70;
-				}
-
-				// reset values
-				aiPieceCount = 0;
-				playerPieceCount = 0;
-				emptyCount = 0;
-			}
-		}
-
-		// check for negatively sloped diagonals
-		for (int row = 0; row < ROW - 3; row++) {
-			for (int col = 0; col < COL - 3; col++) {
-				int c = -1; 			// gets the column number for the empty piece (where the threat is at)
-				int r = -1; 			// gets the row number for the empty piece
-				
-				for (int i = 0; i < 4; i++) {
-					if (board[row + i][col + i] == (char) (AI_PIECE + 48)) {
-						aiPieceCount++;
-					} else if (board[row + i][col + i] == (char) (PLAYER_PIECE + 48)) {
-						playerPieceCount++;
-					} else {
-						emptyCount++;
-						c = col + i;
-						r = row + i;
-					}
-				}
-				
-				// evaluate the window that the program currently checking
-				if (aiPieceCount == 4) {
-					return Integer.MAX_VALUE - 1;
-				}
-				if (playerPieceCount == 4) {
-					return Integer.MIN_VALUE + 1;
-				}
-				totalScore = evaluateWindow(totalScore, r, c, aiPieceCount, emptyCount, board, AI_PIECE);
-				totalScore = evaluateWindow(totalScore, r, c, playerPieceCount, emptyCount, board, PLAYER_PIECE);
-
-				// reset values
-				aiPieceCount = 0;
-				playerPieceCount = 0;
-				emptyCount = 0;
-			}
-		}
-
-		// positively sloped diagonals
-		for (int row = 3; row < ROW; row++) {
-			for (int col = 0; col < COL - 3; col++) {
-				int c = -1; 			// gets the column number for the empty piece (where the threat is at)
-				int r = -1; 			// gets the row number for the empty piece
-				
-				for (int i = 0; i < 4; i++) {
-					if (board[row - i][col + i] == (char) (AI_PIECE + 48)) {
-						aiPieceCount++;
-					} else if (board[row - i][col + i] == (char) (PLAYER_PIECE + 48)) {
-						playerPieceCount++;
-					} else {
-						emptyCount++;
-						c = col + i;
-						r = row - i;
-					}
-				}
-				
-				// evaluate the window that the program currently checking
-				if (aiPieceCount == 4) {
-					return Integer.MAX_VALUE - 1;
-				}
-				if (playerPieceCount == 4) {
-					return Integer.MIN_VALUE + 1;
+					totalScore -= weights.verticalThree;
 				}
+			} 
+			else if (emptyCount == 1) {
+				int bit = Long.numberOfTrailingZeros(window & ~mask); 	// the empty piece (where the threat is at)
+				int c = bit / Position.H1; 								// gets the column number for the empty piece
+				int r = ROW - 1 - bit % Position.H1; 					// gets the row number for the empty piece
 				totalScore = evaluateWindow(totalScore, r, c, aiPieceCount, emptyCount, board, AI_PIECE);
 				totalScore = evaluateWindow(totalScore, r, c, playerPieceCount, emptyCount, board, PLAYER_PIECE);
-
-				// reset values
-				aiPieceCount = 0;
-				playerPieceCount = 0;
-				emptyCount = 0;
 			}
 		}
 
@@ -613,37 +467,18 @@ public class ConnectFourAI {
 	 * @param c - column number
 	 * @param pieceCount - number of pieces
 	 * @param emptyCount - number of empty spaces
-	 * @param board - 2-D char array to store the current board
+	 * @param board - bitboard of the current board
 	 * @param piece - the player's piece or the AI's piece
 	 * @return - int value of the total score of the board
 	 */
-	public static int evaluateWindow(int totalScore, int r, int c, int pieceCount, int emptyCount, char[][] board,
+	public static int evaluateWindow(int totalScore, int r, int c, int pieceCount, int emptyCount, Position board,
 			int piece) {
 		int subtotal = 0;
 		if (pieceCount == 3 && emptyCount == 1) {
+			EvalWeights weights = board.eval.weights;
 			int openR = nextOpenRow(board, c);
-			subtotal = subtotal + 70 - (10 * (openR - r)); // -10 points for every empty space between the available row and the threat row.
-
-			// odd-even strategy of the game
-			// If checking AI_PIECE
-			if (piece == AI_PIECE) {
-				if (r % 2 == 0 && firstTurn == 1) { // If the player goes first this game, AI wants its threats to be at even rows
-					subtotal += 40;
-				} 
-				else if (r % 2 != 0 && firstTurn == 0) { // If the AI goes first this game, AI wants its threats to be at odd rows
-					subtotal += 40;
-				}
-			}
-			// If checking PLAYER_PIECE
-			else {
-				if (r % 2 != 0 && firstTurn == 1) { // If the player goes first this game, player wants their threats to be at odd rows
-					subtotal += 40;
-				} 
-				else if (r % 2 == 0 && firstTurn == 0) { // If the AI goes first this game, AI wants its threats to be at odd rows
-					subtotal += 40;
-				}
-			}
-
+			subtotal = subtotal + weights.three - (weights.rowGap * (openR - r)); // -10 points (by default) for every empty space between the available row and the threat row.
+			subtotal += oddEvenBonus(r, piece, board.firstTurn, weights); 	// odd-even strategy of the game
 		}
 
 		if (piece == AI_PIECE) { 	// the AI
@@ -656,6 +491,38 @@ public class ConnectFourAI {
 		return totalScore;
 	}
 
+	/**
+	 * Name: oddEvenBonus
+	 * Description: This method returns the bonus for a threat that sits on the right row for the odd-even strategy of the game
+	 * @param r - row number of the threat
+	 * @param piece - the player's piece or the AI's piece
+	 * @param firstTurn - who went first this game (0 = AI, 1 = player)
+	 * @param weights - the weights of the evaluation
+	 * @return - int value of the bonus (weights.oddEven or 0)
+	 */
+	public static int oddEvenBonus(int r, int piece, int firstTurn, EvalWeights weights) {
+		// odd-even strategy of the game
+		// If checking AI_PIECE
+		if (piece == AI_PIECE) {
+			if (r % 2 == 0 && firstTurn == 1) { // If the player goes first this game, AI wants its threats to be at even rows
+				return weights.oddEven;
+			} 
+			else if (r % 2 != 0 && firstTurn == 0) { // If the AI goes first this game, AI wants its threats to be at odd rows
+				return weights.oddEven;
+			}
+		}
+		// If checking PLAYER_PIECE
+		else {
+			if (r % 2 != 0 && firstTurn == 1) { // If the player goes first this game, player wants their threats to be at odd rows
+				return weights.oddEven;
+			} 
+			else if (r % 2 == 0 && firstTurn == 0) { // If the AI goes first this game, AI wants its threats to be at odd rows
+				return weights.oddEven;
+			}
+		}
+		return 0;
+	}
+
 	/*
 	 * LinkedList<Pair> pickBestMove () returns LinkedList<Pair> - Returns the
 	 * possible moves with their heuristic values char[][] board - This parameter
@@ -667,31 +534,29 @@ public class ConnectFourAI {
 	/**
 	 * Name: pickBestMove
 	 * Description: This method calculates and returns all the current possible columns to drop a piece and with their heuristic board values
-	 * @param board - 2-D char array to store the current board
+	 * @param board - bitboard of the current board
 	 * @param maximizingPlayer - boolean value to indicate whether it is the maximizingPlayer or the minimizingPlayer that the program is calculating for
 	 * @return - LinkedList<Pair> for the possible moves with their heuristic values
 	 */
-	public static LinkedList<Pair> pickBestMove(char[][] board, boolean maximizingPlayer) {
+	public static LinkedList<Pair> pickBestMove(Position board, boolean maximizingPlayer) {
 		LinkedList<Pair> queue = new LinkedList<>();
 
 		// AI, drop ai piece
 		if (maximizingPlayer) {
 			for (int i : availableNodes(board)) {
-				int r = nextOpenRow(board, i);
-				dropPiece(board, r, i, AI_PIECE);
+				dropPiece(board, i, AI_PIECE);
 				Pair pair = new Pair(i, boardScore(board));
 				queue.add(pair);
-				board[r][i] = '*';
+				board.undo(i);
 			}
 		}
 		// PLAYER, drop player piece
 		else {
 			for (int i : availableNodes(board)) {
-				int r = nextOpenRow(board, i);
-				dropPiece(board, r, i, PLAYER_PIECE);
+				dropPiece(board, i, PLAYER_PIECE);
 				Pair pair = new Pair(i, boardScore(board));
 				queue.add(pair);
-				board[r][i] = '*';
+				board.undo(i);
 			}
 		}
 
@@ -0,0 +1,402 @@
+package ICS4U1;
+
+import java.util.*;
+
+/*
+Class: Engine.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: The AI as an object. An engine owns its transposition table, its thread count and its (optional) opening book, and keeps
+			 no state about any particular game: who went first is part of the Position, and every call to bestMove() searches with
+			 its own Searchers. Many games can therefore share one engine and call bestMove() at the same time from different threads,
+			 with the lock-free transposition table shared between all of them.
+ */
+
+public class Engine {
+
+	static final int DEFAULT_TT_MB = 64;
+
+	final TranspositionTable table; 		// shared by every search of this engine
+	final int threads; 						// search threads used by every bestMove() call
+	final OpeningBook book; 				// null if there is no opening book
+	final Tablebase tablebase; 				// null if there is no endgame tablebase
+	final EvalCache evalCache; 				// shared by every search of this engine, null if there is none
+	final EvalWeights weights; 				// the weights every search of this engine evaluates with
+	final boolean collectStats; 			// whether every search counts its statistics
+	final SearchMetrics metrics = new SearchMetrics(); 	// totals of every search, can be published through JMX
+
+	/**
+	 * Name: Engine
+	 * Description: Constructor for a single-threaded engine with the default table size and no opening book
+	 */
+	public Engine() {
+		this(DEFAULT_TT_MB, 1, null);
+	}
+
+	/**
+	 * Name: Engine
+	 * Description: Constructor for the Engine class
+	 * @param ttMegabytes - memory budget of the transposition table
+	 * @param threads - number of search threads for every bestMove() call (Lazy SMP if above 1)
+	 * @param book - the opening book, null if there is none
+	 */
+	public Engine(int ttMegabytes, int threads, OpeningBook book) {
+		this(ttMegabytes, threads, book, true);
+	}
+
+	/**
+	 * Name: Engine
+	 * Description: Constructor for the Engine class
+	 * @param ttMegabytes - memory budget of the transposition table
+	 * @param threads - number of search threads for every bestMove() call (Lazy SMP if above 1)
+	 * @param book - the opening book, null if there is none
+	 * @param collectStats - whether every search counts its statistics (cutoffs, leaf evaluations...)
+	 */
+	public Engine(int ttMegabytes, int threads, OpeningBook book, boolean collectStats) {
+		this(ttMegabytes, threads, book, null, collectStats);
+	}
+
+	/**
+	 * Name: Engine
+	 * Description: Constructor for the Engine class
+	 * @param ttMegabytes - memory budget of the transposition table
+	 * @param threads - number of search threads for every bestMove() call (Lazy SMP if above 1)
+	 * @param book - the opening book, null if there is none
+	 * @param tablebase - the endgame tablebase, null if there is none
+	 * @param collectStats - whether every search counts its statistics (cutoffs, leaf evaluations...)
+	 */
+	public Engine(int ttMegabytes, int threads, OpeningBook book, Tablebase tablebase, boolean collectStats) {
+		this(ttMegabytes, threads, book, tablebase, collectStats, 0);
+	}
+
+	/**
+	 * Name: Engine
+	 * Description: Constructor for the Engine class. The evaluation cache only pays off if the evaluation is slower than a cache probe,
+	 * 				which the incremental boardScore() is not, so the other constructors leave it out.
+	 * @param ttMegabytes - memory budget of the transposition table
+	 * @param threads - number of search threads for every bestMove() call (Lazy SMP if above 1)
+	 * @param book - the opening book, null if there is none
+	 * @param tablebase - the endgame tablebase, null if there is none
+	 * @param collectStats - whether every search counts its statistics (cutoffs, leaf evaluations...)
+	 * @param evalCacheMegabytes - memory budget of the leaf evaluation cache, 0 for no cache
+	 */
+	public Engine(int ttMegabytes, int threads, OpeningBook book, Tablebase tablebase, boolean collectStats, int evalCacheMegabytes) {
+		this(ttMegabytes, threads, book, tablebase, collectStats, evalCacheMegabytes, EvalWeights.DEFAULT);
+	}
+
+	/**
+	 * Name: Engine
+	 * Description: Constructor for the Engine class
+	 * @param ttMegabytes - memory budget of the transposition table
+	 * @param threads - number of search threads for every bestMove() call (Lazy SMP if above 1)
+	 * @param book - the opening book, null if there is none
+	 * @param tablebase - the endgame tablebase, null if there is none
+	 * @param collectStats - whether every search counts its statistics (cutoffs, leaf evaluations...)
+	 * @param evalCacheMegabytes - memory budget of the leaf evaluation cache, 0 for no cache
+	 * @param weights - the weights of the evaluation (the opening book was made with the default weights)
+	 */
+	public Engine(int ttMegabytes, int threads, OpeningBook book, Tablebase tablebase, boolean collectStats, int evalCacheMegabytes,
+			EvalWeights weights) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("An engine needs at least one search thread");
+		}
+		this.table = new TranspositionTable(ttMegabytes);
+		this.threads = threads;
+		this.book = book;
+		this.tablebase = tablebase;
+		this.evalCache = evalCacheMegabytes > 0 ? new EvalCache(evalCacheMegabytes) : null;
+		this.weights = weights;
+		this.collectStats = collectStats;
+	}
+
+	/**
+	 * Name: bestMove
+	 * Description: Finds the best column for the side to move. The AI's opening moves come from the book if there is one, everything
+	 * 				else is searched with iterative deepening (depth 1, 2, 3...) until one of the limits is reached, and the best move of
+	 * 				the deepest finished iteration is returned. With more than one thread, the other threads run helper searchers
+	 * 				(Lazy SMP) that fill the shared transposition table until the main searcher is done. Only the main searcher's result
+	 * 				is returned, but the helpers' table entries can still change which of two equally good moves it finds first, or give
+	 * 				it results from deeper than its own depth, so with more than one thread the move is not always the one a single
+	 * 				thread would play.
+	 * @param position - the current board (not changed)
+	 * @param limits - the time, node and depth budget of the search
+	 * @return - the best column with its score and search statistics
+	 * @throws IllegalArgumentException - if the game is already over
+	 */
+	public SearchResult bestMove(Position position, SearchLimits limits) {
+		SearchEvent event = new SearchEvent();
+		event.begin();
+		SearchResult result = search(position, limits);
+		metrics.record(result);
+		event.end();
+		if (event.shouldCommit()) {
+			event.column = result.column;
+			event.score = result.score;
+			event.depth = result.depth;
+			event.nodes = result.nodes;
+			event.bookMove = result.bookMove;
+			if (result.stats != null) {
+				event.cutoffRate = result.stats.cutoffRate();
+				event.firstMoveCutoffRate = result.stats.firstMoveCutoffRate();
+				event.leafEvaluations = result.stats.leafEvaluations;
+				event.terminalHits = result.stats.terminalHits;
+				event.evalCacheHitRate = result.stats.evalCacheHitRate();
+				event.branchingFactor = result.stats.branchingFactor();
+			}
+			event.commit();
+		}
+		return result;
+	}
+
+	/**
+	 * Name: search
+	 * Description: The book lookup and the search of bestMove(), without the metrics
+	 * @param position - the current board (not changed)
+	 * @param limits - the time, node and depth budget of the search
+	 * @return - the best column with its score and search statistics
+	 */
+	private SearchResult search(Position position, SearchLimits limits) {
+		if (ConnectFourAI.isTerminalNode(position)) {
+			throw new IllegalArgumentException("The game is already over");
+		}
+		long start = System.nanoTime();
+		boolean maximizingPlayer = position.sideToMove() == ConnectFourAI.AI_PIECE;
+
+		// opening moves come straight from the book
+		if (maximizingPlayer && book != null) {
+			int col = book.probe(position);
+			if (col >= 0) {
+				return new SearchResult(col, 0, 0, 0, (System.nanoTime() - start) / 1000000, true, null);
+			}
+		}
+
+		long deadline = limits.timeMillis >= Long.MAX_VALUE / 2000000 ? Long.MAX_VALUE : start + limits.timeMillis * 1000000;
+		int lastDepth = Math.max(1, Math.min(limits.maxDepth, Position.ROW * Position.COL - position.moves));
+		table.newSearch();
+
+		// start the helpers, every other helper starts one ply deeper so that they do not all search the same iteration
+		Searcher[] helpers = new Searcher[threads - 1];
+		Thread[] helperThreads = new Thread[helpers.length];
+		for (int i = 0; i < helpers.length; i++) {
+			Searcher helper = newSearcher(position);
+			int firstDepth = Math.min(lastDepth, 1 + (i + 1) % 2);
+			helpers[i] = helper;
+			helperThreads[i] = new Thread(() -> helper.iterate(firstDepth, lastDepth, deadline, Long.MAX_VALUE, maximizingPlayer),
+					"search-helper-" + i);
+			helperThreads[i].setDaemon(true);
+			helperThreads[i].start();
+		}
+
+		Searcher main = newSearcher(position);
+		main.collectStats = collectStats;
+		ConnectFourAI.Pair best = main.iterate(1, lastDepth, deadline, limits.maxNodes, maximizingPlayer);
+
+		// stop the helpers once the main searcher is done
+		long nodes = main.nodes;
+		for (int i = 0; i < helpers.length; i++) {
+			helpers[i].abort = true;
+			try {
+				helperThreads[i].join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			nodes += helpers[i].nodes;
+		}
+		long nanos = System.nanoTime() - start;
+		SearchStats stats = collectStats ? main.stats(nodes, nanos) : null;
+		return new SearchResult(best.column, best.val, main.completedDepth, nodes, nanos / 1000000, false, stats);
+	}
+
+	/**
+	 * Name: analyse
+	 * Description: Finds the exact heuristic value of the best few columns (or all of them) in one search, with iterative deepening
+	 * 				until one of the limits is reached. Every column shares this engine's transposition table, so the subtrees they
+	 * 				have in common are only searched once. The first lines columns are searched with a full window; every other column is
+	 * 				first tested with a null window against the worst of those, and only searched in full if it turns out to be better.
+	 * @param position - the current board (not changed)
+	 * @param limits - the time, node and depth budget of the analysis
+	 * @param lines - the number of columns to return (7 or more for every legal column)
+	 * @return - the analysis of the deepest finished iteration
+	 * @throws IllegalArgumentException - if the game is already over or lines is below 1
+	 */
+	public Analysis analyse(Position position, SearchLimits limits, int lines) {
+		if (ConnectFourAI.isTerminalNode(position)) {
+			throw new IllegalArgumentException("The game is already over");
+		}
+		if (lines < 1) {
+			throw new IllegalArgumentException("At least one line has to be analysed");
+		}
+		long start = System.nanoTime();
+		long deadline = limits.timeMillis >= Long.MAX_VALUE / 2000000 ? Long.MAX_VALUE : start + limits.timeMillis * 1000000;
+		int lastDepth = Math.max(1, Math.min(limits.maxDepth, Position.ROW * Position.COL - position.moves));
+		boolean maximizingPlayer = position.sideToMove() == ConnectFourAI.AI_PIECE;
+		int piece = position.sideToMove();
+		table.newSearch();
+
+		// the legal columns, searched in the order of the last iteration's scores
+		int[] order = new int[Position.COL];
+		int count = 0;
+		for (int col : Searcher.CENTER_ORDER) {
+			if (position.canPlay(col)) {
+				order[count++] = col;
+			}
+		}
+
+		Searcher searcher = newSearcher(position);
+		Position board = searcher.board;
+		List<Analysis.Line> best = new ArrayList<>();
+		int completedDepth = 0;
+		for (int depth = 1; depth <= lastDepth; depth++) {
+			if (depth == 2) { 		// the first iteration always finishes
+				searcher.nodeLimit = limits.maxNodes;
+				searcher.deadline = deadline;
+			}
+			List<Analysis.Line> top = new ArrayList<>(); 		// best first
+			for (int i = 0; i < count && !searcher.stopped; i++) {
+				int col = order[i];
+				board.play(col, piece);
+				int score;
+				if (top.size() < lines) {
+					score = searcher.alphaBeta(depth - 1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE, !maximizingPlayer);
+				}
+				else {
+					// null window around the worst line kept so far, only a column that beats it needs its exact score
+					int bound = top.get(lines - 1).score;
+					score = maximizingPlayer ? searcher.alphaBeta(depth - 1, 1, bound, bound + 1, false)
+							: searcher.alphaBeta(depth - 1, 1, bound - 1, bound, true);
+					if (maximizingPlayer ? score > bound : score < bound) {
+						score = searcher.alphaBeta(depth - 1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE, !maximizingPlayer);
+					}
+					else {
+						board.undo(col);
+						continue;
+					}
+				}
+				int[] pv = principalVariation(board, col, depth);
+				board.undo(col);
+				if (searcher.stopped) {
+					break;
+				}
+
+				// insert the line in order and keep the best ones
+				int at = 0;
+				while (at < top.size() && (maximizingPlayer ? top.get(at).score >= score : top.get(at).score <= score)) {
+					at++;
+				}
+				top.add(at, new Analysis.Line(col, score, pv));
+				if (top.size() > lines) {
+					top.remove(lines);
+				}
+			}
+			if (searcher.stopped) {
+				break; 						// ran out of time in the middle of this iteration
+			}
+			best = top;
+			completedDepth = depth;
+
+			// the next iteration searches the best columns first
+			int next = 0;
+			int[] reordered = new int[Position.COL];
+			boolean[] placed = new boolean[Position.COL];
+			boolean decided = true; 		// scores of a won or lost game do not change with more depth
+			for (Analysis.Line line : top) {
+				reordered[next++] = line.column;
+				placed[line.column] = true;
+				decided &= Searcher.isDecided(line.score);
+			}
+			for (int i = 0; i < count; i++) {
+				if (!placed[order[i]]) {
+					reordered[next++] = order[i];
+				}
+			}
+			order = reordered;
+			if (decided) {
+				break;
+			}
+		}
+		return new Analysis(best, completedDepth, searcher.nodes, (System.nanoTime() - start) / 1000000);
+	}
+
+	/**
+	 * Name: principalVariation
+	 * Description: Follows the best moves stored in the transposition table from a root column
+	 * @param board - the board with the root column already played (not changed)
+	 * @param col - the root column
+	 * @param depth - the depth the column was searched to, the longest line returned
+	 * @return - int[] of the columns of the line, starting with the root column
+	 */
+	private int[] principalVariation(Position board, int col, int depth) {
+		Position line = new Position(board);
+		int[] pv = new int[depth];
+		pv[0] = col;
+		int length = 1;
+		while (length < depth && !ConnectFourAI.isTerminalNode(line)) {
+			int side = line.sideToMove();
+			long entry = table.probe(line.searchKey());
+			int move = entry != 0 ? TranspositionTable.move(entry) : -1;
+			if (move < 0 || !line.canPlay(move)) {
+				// the search does not store nodes that win right away, so the winning move is found here
+				long wins = Position.winningCells(line.pieces[side], line.mask()) & Position.possible(line.mask());
+				if (wins == 0) {
+					break;
+				}
+				move = Long.numberOfTrailingZeros(wins) / Position.H1;
+			}
+			line.play(move, side);
+			pv[length++] = move;
+		}
+		return Arrays.copyOf(pv, length);
+	}
+
+	/**
+	 * Name: ponder
+	 * Description: Starts searching the position in the background while the opponent is thinking, filling the transposition table
+	 * 				for every reply they could make. The ponder search should be stopped as soon as the opponent's move arrives.
+	 * @param position - the current board with the opponent to move (not changed)
+	 * @return - the running ponder search
+	 * @throws IllegalArgumentException - if the game is already over
+	 */
+	public PonderSearch ponder(Position position) {
+		if (ConnectFourAI.isTerminalNode(position)) {
+			throw new IllegalArgumentException("The game is already over");
+		}
+		return new PonderSearch(newSearcher(position));
+	}
+
+	/**
+	 * Name: miniMax
+	 * Description: Calculates and returns the best possible score and the column that generates that score at a fixed searching depth.
+	 * 				The search runs on its own copy of the board, so the board is left unchanged.
+	 * @param depth - The searching depth
+	 * @param board - bitboard of the current board
+	 * @param alpha - Variable for alpha-beta pruning
+	 * @param beta - Variable for alpha-beta pruning
+	 * @param maximizingPlayer - Boolean value to indicate which player's turn it is (maximizing or minimizing player)
+	 * @return Pair - returns the best pair that contains the best column and the best heuristic value of the board
+	 */
+	public ConnectFourAI.Pair miniMax(int depth, Position board, int alpha, int beta, boolean maximizingPlayer) {
+		return newSearcher(board).search(depth, alpha, beta, maximizingPlayer);
+	}
+
+	/**
+	 * Name: newSearcher
+	 * Description: Creates a searcher that shares this engine's transposition table, endgame tablebase and evaluation cache, on a
+	 * 				board that is evaluated with this engine's weights
+	 * @param position - the board to be searched (copied)
+	 * @return - the searcher
+	 */
+	private Searcher newSearcher(Position position) {
+		Searcher searcher = new Searcher(table, position.eval.weights == weights ? position : new Position(position, weights));
+		searcher.tablebase = tablebase;
+		searcher.evalCache = evalCache;
+		return searcher;
+	}
+
+	/**
+	 * Name: clear
+	 * Description: Empties the transposition table (only call it while no search of this engine is running)
+	 */
+	public void clear() {
+		table.clear();
+	}
+}
@@ -0,0 +1,91 @@
+package ICS4U1;
+
+/*
+Class: EvalCache.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Fixed-size cache of leaf evaluations, shared by every search thread of an engine. The key is Position.searchKey(), which
+			 includes who went first, since the odd-even bonus of a threat depends on it. Like the transposition table, every entry is
+			 two longs in primitive arrays (the key XOR-ed with the data, and the data), so a torn entry no longer matches its key and is
+			 treated as a miss, and the cache never needs a lock. Every slot is simply overwritten by the latest position that maps to it.
+ */
+
+public class EvalCache {
+
+	static final int ENTRY_BYTES = 16;
+	private static final long PRESENT = 1L << 32; 		// set in every stored entry, so an entry is never 0
+
+	private final long[] keys;
+	private final long[] data;
+	private final int indexMask;
+
+	/**
+	 * Name: EvalCache
+	 * Description: Constructor for the EvalCache class
+	 * @param megabytes - memory budget of the cache, the number of entries is rounded down to a power of two
+	 */
+	public EvalCache(int megabytes) {
+		long entries = Math.max(1, ((long) megabytes << 20) / ENTRY_BYTES);
+		int size = (int) Long.highestOneBit(Math.min(entries, 1L << 30));
+		keys = new long[size];
+		data = new long[size];
+		indexMask = size - 1;
+	}
+
+	/**
+	 * Name: probe
+	 * Description: Looks up the heuristic score of a position
+	 * @param key - Position.searchKey() of the position
+	 * @return - long value of the entry, 0 if the position is not in the cache
+	 */
+	public long probe(long key) {
+		int i = index(key);
+		long entry = data[i]; 		// read once, another thread may be writing the slot
+		if (entry != 0 && (keys[i] ^ entry) == key) {
+			return entry;
+		}
+		return 0;
+	}
+
+	/**
+	 * Name: store
+	 * Description: Saves the heuristic score of a position, replacing whatever was in its slot
+	 * @param key - Position.searchKey() of the position
+	 * @param score - the heuristic score
+	 */
+	public void store(long key, int score) {
+		long entry = (score & 0xFFFFFFFFL) | PRESENT;
+		int i = index(key);
+		keys[i] = key ^ entry;
+		data[i] = entry;
+	}
+
+	/**
+	 * Name: score
+	 * Description: Unpacks the score of an entry
+	 * @param entry - an entry returned by probe()
+	 * @return - int value of the heuristic score
+	 */
+	static int score(long entry) {
+		return (int) entry;
+	}
+
+	/**
+	 * Name: index
+	 * Description: Returns the slot of a key (Fibonacci hashing, the same as the transposition table)
+	 * @param key - Position.searchKey() of the position
+	 * @return - int value of the slot
+	 */
+	private int index(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & indexMask;
+	}
+
+	/**
+	 * Name: clear
+	 * Description: Empties the cache (only while no search is using it)
+	 */
+	public void clear() {
+		java.util.Arrays.fill(keys, 0);
+		java.util.Arrays.fill(data, 0);
+	}
+}
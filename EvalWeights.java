@@ -0,0 +1,96 @@
+package ICS4U1;
+
+/*
+Class: EvalWeights.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: The tunable numbers of the heuristic evaluation, kept as a vector so that Tuner can change them one at a time. Every board
+			 is evaluated with the weights of its Evaluator, and every engine gives its own weights to the boards it searches, so two
+			 engines with different weights can play each other. Apart from a board with four in a line, the score of a board is the
+			 sum of every weight times one feature of the board (see Tuner.features()).
+ */
+
+public class EvalWeights {
+
+	// positions in the vector
+	static final int CENTER = 0;
+	static final int CENTER_PLAYER = 1;
+	static final int THREE = 2;
+	static final int VERTICAL_THREE = 3;
+	static final int ROW_GAP = 4;
+	static final int ODD_EVEN = 5;
+	static final String[] NAMES = {"center", "centerPlayer", "three", "verticalThree", "rowGap", "oddEven"};
+
+	static final EvalWeights DEFAULT = new EvalWeights(new int[] {20, 16, 70, 70, 10, 40});
+
+	final int center; 			// points for every AI piece in the center column
+	final int centerPlayer; 	// points taken away for every player piece in the center column
+	final int three; 			// three pieces and an empty cell in a row or a diagonal (a threat)
+	final int verticalThree; 	// three pieces and an empty cell in a column, always playable right away
+	final int rowGap; 			// points taken off a threat for every empty cell below it
+	final int oddEven; 			// bonus of a threat on the row that suits the side in the odd-even strategy
+
+	/**
+	 * Name: EvalWeights
+	 * Description: Constructor for the EvalWeights class
+	 * @param vector - the weights, in the order of NAMES
+	 * @throws IllegalArgumentException - if the vector does not have one value for every weight
+	 */
+	public EvalWeights(int[] vector) {
+		if (vector.length != NAMES.length) {
+			throw new IllegalArgumentException("Expected " + NAMES.length + " weights, got " + vector.length);
+		}
+		center = vector[CENTER];
+		centerPlayer = vector[CENTER_PLAYER];
+		three = vector[THREE];
+		verticalThree = vector[VERTICAL_THREE];
+		rowGap = vector[ROW_GAP];
+		oddEven = vector[ODD_EVEN];
+	}
+
+	/**
+	 * Name: vector
+	 * Description: Returns the weights as a vector
+	 * @return - the weights, in the order of NAMES
+	 */
+	public int[] vector() {
+		return new int[] {center, centerPlayer, three, verticalThree, rowGap, oddEven};
+	}
+
+	/**
+	 * Name: with
+	 * Description: Returns a copy of these weights with one of them changed
+	 * @param index - position of the weight in the vector
+	 * @param value - the new value of the weight
+	 * @return - the new weights
+	 */
+	public EvalWeights with(int index, int value) {
+		int[] vector = vector();
+		vector[index] = value;
+		return new EvalWeights(vector);
+	}
+
+	/**
+	 * Name: indexOf
+	 * Description: Finds a weight by name, ignoring case
+	 * @param name - the name of the weight
+	 * @return - int value of its position in the vector, -1 if there is no such weight
+	 */
+	static int indexOf(String name) {
+		for (int i = 0; i < NAMES.length; i++) {
+			if (NAMES[i].equalsIgnoreCase(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public String toString() {
+		int[] vector = vector();
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < vector.length; i++) {
+			text.append(i == 0 ? "" : ",").append(NAMES[i]).append('=').append(vector[i]);
+		}
+		return text.toString();
+	}
+}
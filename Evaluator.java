@@ -0,0 +1,180 @@
+package ICS4U1;
+
+/*
+Class: Evaluator.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Incremental version of boardScore() that is kept up to date by Position.play() and Position.undo(). It stores the piece counts
+			 of all 69 windows and a running score, so dropping a piece only re-evaluates the 4 to 13 windows that contain the new cell.
+			 The -10 points (the rowGap weight) for every empty row below a threat depend on the height of the threat's column rather
+			 than on the window itself, so that part is kept per column and added in score(): every threat is stored as
+			 (three + rowGap * r + odd-even bonus) and the column adds -rowGap * nextOpenRow for every AI threat waiting in it (the
+			 opposite for every player threat).
+ */
+
+public class Evaluator {
+
+	static final int WINDOW_COUNT = Position.WINDOWS.length;
+	static final int[][] CELL_WINDOWS = new int[Position.COL * Position.H1][]; 	// the windows that contain each cell bit
+
+	static {
+		for (int bit = 0; bit < CELL_WINDOWS.length; bit++) {
+			int count = 0;
+			for (int w = 0; w < WINDOW_COUNT; w++) {
+				if ((Position.WINDOWS[w] & (1L << bit)) != 0) {
+					count++;
+				}
+			}
+			CELL_WINDOWS[bit] = new int[count];
+			count = 0;
+			for (int w = 0; w < WINDOW_COUNT; w++) {
+				if ((Position.WINDOWS[w] & (1L << bit)) != 0) {
+					CELL_WINDOWS[bit][count++] = w;
+				}
+			}
+		}
+	}
+
+	byte[][] windowCount = new byte[2][WINDOW_COUNT]; 		// pieces of each side in every window
+	int[] windowScore = new int[WINDOW_COUNT]; 				// the part of the score that every window adds to base
+	byte[] threatColumn = new byte[WINDOW_COUNT]; 			// column of the window's threat (-1 if the window is not a row/diagonal threat)
+	byte[] threatSign = new byte[WINDOW_COUNT]; 			// 1 for an AI threat, -1 for a player threat
+	int[] columnThreats = new int[Position.COL]; 			// AI threats minus player threats waiting in every column
+	int[] fours = new int[2]; 								// number of windows that are completely filled by each side
+	int base; 												// center column bonus plus every windowScore
+	final EvalWeights weights; 								// the weights the board is evaluated with
+
+	/**
+	 * Name: Evaluator
+	 * Description: Constructor for the evaluator of an empty board with the default weights
+	 */
+	public Evaluator() {
+		this(EvalWeights.DEFAULT);
+	}
+
+	/**
+	 * Name: Evaluator
+	 * Description: Constructor for the evaluator of an empty board
+	 * @param weights - the weights the board is evaluated with
+	 */
+	public Evaluator(EvalWeights weights) {
+		this.weights = weights;
+		java.util.Arrays.fill(threatColumn, (byte) -1);
+	}
+
+	/**
+	 * Name: Evaluator
+	 * Description: Copy constructor
+	 * @param other - the evaluator to be copied
+	 */
+	public Evaluator(Evaluator other) {
+		windowCount[0] = other.windowCount[0].clone();
+		windowCount[1] = other.windowCount[1].clone();
+		windowScore = other.windowScore.clone();
+		threatColumn = other.threatColumn.clone();
+		threatSign = other.threatSign.clone();
+		columnThreats = other.columnThreats.clone();
+		fours[0] = other.fours[0];
+		fours[1] = other.fours[1];
+		base = other.base;
+		weights = other.weights;
+	}
+
+	/**
+	 * Name: play
+	 * Description: Updates the windows after a piece has been added to the board
+	 * @param board - the board, already containing the new piece
+	 * @param bit - bit index of the new piece
+	 * @param piece - the player's piece or the AI's piece
+	 */
+	void play(Position board, int bit, int piece) {
+		if (bit / Position.H1 == 3) {
+			base += piece == ConnectFourAI.AI_PIECE ? weights.center : -weights.centerPlayer; 	// center column bonus
+		}
+		for (int w : CELL_WINDOWS[bit]) {
+			if (++windowCount[piece][w] == 4) {
+				fours[piece]++;
+			}
+			rescore(board, w);
+		}
+	}
+
+	/**
+	 * Name: undo
+	 * Description: Updates the windows after a piece has been taken off the board (the reverse of play())
+	 * @param board - the board, with the piece already removed
+	 * @param bit - bit index of the removed piece
+	 * @param piece - the player's piece or the AI's piece
+	 */
+	void undo(Position board, int bit, int piece) {
+		if (bit / Position.H1 == 3) {
+			base -= piece == ConnectFourAI.AI_PIECE ? weights.center : -weights.centerPlayer;
+		}
+		for (int w : CELL_WINDOWS[bit]) {
+			if (windowCount[piece][w]-- == 4) {
+				fours[piece]--;
+			}
+			rescore(board, w);
+		}
+	}
+
+	/**
+	 * Name: score
+	 * Description: Returns the heuristic score of the board, always the same value as ConnectFourAI.scanBoardScore()
+	 * @param board - the board that this evaluator belongs to
+	 * @return - int value of the heuristic score of the board
+	 */
+	int score(Position board) {
+		if (fours[ConnectFourAI.AI_PIECE] != 0 || fours[ConnectFourAI.PLAYER_PIECE] != 0) {
+			if (fours[ConnectFourAI.AI_PIECE] != 0 && fours[ConnectFourAI.PLAYER_PIECE] != 0) {
+				return ConnectFourAI.scanBoardScore(board); 	// both sides have 4 in a line, the first window found decides
+			}
+			return fours[ConnectFourAI.AI_PIECE] != 0 ? Integer.MAX_VALUE - 1 : Integer.MIN_VALUE + 1;
+		}
+
+		int totalScore = base;
+		for (int col = 0; col < Position.COL; col++) {
+			if (columnThreats[col] != 0) {
+				totalScore -= weights.rowGap * board.nextOpenRow(col) * columnThreats[col]; // -10 points for every empty space below the threats
+			}
+		}
+		return totalScore;
+	}
+
+	/**
+	 * Name: rescore
+	 * Description: Replaces the contribution of a window after its piece counts have changed
+	 * @param board - the current board
+	 * @param w - index of the window
+	 */
+	private void rescore(Position board, int w) {
+		// take out the old contribution
+		base -= windowScore[w];
+		if (threatColumn[w] >= 0) {
+			columnThreats[threatColumn[w]] -= threatSign[w];
+			threatColumn[w] = -1;
+		}
+
+		int aiPieceCount = windowCount[ConnectFourAI.AI_PIECE][w];
+		int playerPieceCount = windowCount[ConnectFourAI.PLAYER_PIECE][w];
+		int subtotal = 0;
+		if (aiPieceCount + playerPieceCount == 3 && (aiPieceCount == 3 || playerPieceCount == 3)) {
+			int piece = aiPieceCount == 3 ? ConnectFourAI.AI_PIECE : ConnectFourAI.PLAYER_PIECE;
+			int sign = aiPieceCount == 3 ? 1 : -1;
+			if (Position.VERTICAL[w]) {
+				subtotal = weights.verticalThree * sign; 		// column threats are always playable right away
+			}
+			else {
+				int bit = Long.numberOfTrailingZeros(Position.WINDOWS[w] & ~board.mask()); 	// the empty piece (where the threat is at)
+				int c = bit / Position.H1;
+				int r = Position.ROW - 1 - bit % Position.H1;
+				subtotal = sign * (weights.three + weights.rowGap * r + ConnectFourAI.oddEvenBonus(r, piece, board.firstTurn, weights));
+				threatColumn[w] = (byte) c;
+				threatSign[w] = (byte) sign;
+				columnThreats[c] += sign;
+			}
+		}
+		windowScore[w] = subtotal;
+		base += subtotal;
+	}
+}
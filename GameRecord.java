@@ -0,0 +1,251 @@
+package ICS4U1;
+
+import java.nio.ByteBuffer;
+
+/*
+Class: GameRecord.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: One finished (or abandoned) game in the binary format of the game record files written by GameRecordWriter and read by
+			 GameRecordReader. A record is one flags byte (who moved first in bit 0, the result in bits 1-2, bit 3 set if the moves
+			 come with engine statistics), one byte with the number of moves, the moves packed at 3 bits per column (the first move in
+			 the lowest bits), then, if there are statistics, for every move the search depth in one byte followed, if the depth is not
+			 0, by the score, the nodes and the milliseconds of the search as variable-length integers. A move with depth 0 was made by
+			 the player or taken from the opening book. A game without statistics takes 18 bytes at most. A record without moves, or
+			 with a result the moves cannot lead to, is not valid, so a part of the file that was never written is not read as games.
+			 The file starts with a 16-byte header: the magic number, the version, and the offset of the end of the last whole write,
+			 which the writer updates after every flush so that a torn end can be found without reading the file from the start.
+			 The same object is meant to be reused for every game, so reading a file does not allocate anything per game.
+ */
+
+public class GameRecord {
+
+	static final int MAGIC = 0x43344752; 		// "C4GR", the start of every game record file
+	static final int VERSION = 2;
+	static final int HEADER_BYTES = 16; 		// magic number, version and the end of the last flush
+	static final int FLUSHED_END = 8; 			// position of the end of the last flush in the header
+	static final int MAX_MOVES = Position.ROW * Position.COL;
+	static final int MAX_BYTES = 2 + (3 * MAX_MOVES + 7) / 8 + MAX_MOVES * (1 + 5 + 10 + 10); 	// the longest possible record
+
+	// results
+	static final int AI_WON = ConnectFourAI.AI_PIECE;
+	static final int PLAYER_WON = ConnectFourAI.PLAYER_PIECE;
+	static final int DRAW = 2;
+	static final int UNFINISHED = 3;
+
+	int firstPiece; 							// the piece that played the first move
+	int result = UNFINISHED; 					// AI_WON, PLAYER_WON, DRAW or UNFINISHED
+	boolean hasStats; 							// true if the moves come with engine statistics
+	int moveCount; 								// number of moves played
+	final byte[] moves = new byte[MAX_MOVES]; 	// the column of every move
+	final int[] depths = new int[MAX_MOVES]; 	// depth of the search of every move, 0 if the move was not searched
+	final int[] scores = new int[MAX_MOVES]; 	// heuristic value of every searched move
+	final long[] nodes = new long[MAX_MOVES]; 	// nodes searched for every move
+	final long[] millis = new long[MAX_MOVES]; 	// wall-clock time of the search of every move
+
+	/**
+	 * Name: reset
+	 * Description: Empties the record for a new game
+	 * @param firstPiece - the piece that plays the first move
+	 * @param hasStats - true if the moves will come with engine statistics
+	 */
+	public void reset(int firstPiece, boolean hasStats) {
+		this.firstPiece = firstPiece;
+		this.hasStats = hasStats;
+		result = UNFINISHED;
+		moveCount = 0;
+	}
+
+	/**
+	 * Name: add
+	 * Description: Adds a move that was not searched (a move of the player)
+	 * @param col - the column of the move
+	 */
+	public void add(int col) {
+		moves[moveCount] = (byte) col;
+		depths[moveCount] = 0;
+		scores[moveCount] = 0;
+		nodes[moveCount] = 0;
+		millis[moveCount++] = 0;
+	}
+
+	/**
+	 * Name: add
+	 * Description: Adds a move found by the engine, with the statistics of its search
+	 * @param result - the result of the search, its column is the move
+	 */
+	public void add(SearchResult result) {
+		moves[moveCount] = (byte) result.column;
+		depths[moveCount] = result.depth;
+		scores[moveCount] = result.score;
+		nodes[moveCount] = result.nodes;
+		millis[moveCount++] = result.millis;
+	}
+
+	/**
+	 * Name: removeLast
+	 * Description: Takes back the last move added, with its statistics
+	 * @throws IllegalStateException - if the record has no moves
+	 */
+	public void removeLast() {
+		if (moveCount == 0) {
+			throw new IllegalStateException("The game has no moves to take back");
+		}
+		moveCount--;
+	}
+
+	/**
+	 * Name: finish
+	 * Description: Sets the result of the record from the final board
+	 * @param board - the board after the last move
+	 */
+	public void finish(Position board) {
+		if (ConnectFourAI.winBoard(board, ConnectFourAI.AI_PIECE)) {
+			result = AI_WON;
+		} else if (ConnectFourAI.winBoard(board, ConnectFourAI.PLAYER_PIECE)) {
+			result = PLAYER_WON;
+		} else {
+			result = ConnectFourAI.isTerminalNode(board) ? DRAW : UNFINISHED;
+		}
+	}
+
+	/**
+	 * Name: position
+	 * Description: Replays the first moves of the game
+	 * @param plies - the number of moves to play
+	 * @return - the position after the moves
+	 */
+	public Position position(int plies) {
+		Position board = new Position(firstPiece == ConnectFourAI.AI_PIECE ? 0 : 1);
+		int piece = firstPiece;
+		for (int i = 0; i < plies; i++) {
+			board.play(moves[i], piece);
+			piece = 1 - piece;
+		}
+		return board;
+	}
+
+	/**
+	 * Name: encode
+	 * Description: Writes the record to a buffer
+	 * @param out - the buffer, with at least MAX_BYTES bytes left
+	 */
+	void encode(ByteBuffer out) {
+		out.put((byte) (firstPiece | result << 1 | (hasStats ? 8 : 0)));
+		out.put((byte) moveCount);
+		long bits = 0;
+		int bitCount = 0;
+		for (int i = 0; i < moveCount; i++) {
+			bits |= (long) moves[i] << bitCount;
+			bitCount += 3;
+			if (bitCount >= 8) {
+				out.put((byte) bits);
+				bits >>>= 8;
+				bitCount -= 8;
+			}
+		}
+		if (bitCount > 0) {
+			out.put((byte) bits);
+		}
+		if (hasStats) {
+			for (int i = 0; i < moveCount; i++) {
+				out.put((byte) depths[i]);
+				if (depths[i] != 0) {
+					putVarLong(out, ((scores[i] << 1) ^ (scores[i] >> 31)) & 0xFFFFFFFFL); 	// zigzag, so small negative scores stay short
+					putVarLong(out, nodes[i]);
+					putVarLong(out, millis[i]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Name: decode
+	 * Description: Reads a record from a buffer, replacing the contents of this one
+	 * @param in - the buffer, positioned at the start of a record
+	 * @return - true if the record was read, false if its flags or moves are not valid, or the result cannot follow from the moves
+	 * @throws java.nio.BufferUnderflowException - if the buffer ends in the middle of the record
+	 */
+	boolean decode(ByteBuffer in) {
+		int flags = in.get();
+		moveCount = in.get();
+		if ((flags & ~0xF) != 0 || moveCount <= 0 || moveCount > MAX_MOVES) {
+			return false; 		// a game without moves is never written, so zeros (a part of the file never written) are not a game
+		}
+		firstPiece = flags & 1;
+		result = (flags >> 1) & 3;
+		hasStats = (flags & 8) != 0;
+		int lastPiece = moveCount % 2 == 1 ? firstPiece : 1 - firstPiece;
+		if (result == DRAW ? moveCount != MAX_MOVES : result != UNFINISHED && (result != lastPiece || moveCount < 7)) {
+			return false; 		// a draw fills the board, and a game is won by the last move, with the winner's fourth piece or later
+		}
+		long bits = 0;
+		int bitCount = 0;
+		for (int i = 0; i < moveCount; i++) {
+			if (bitCount < 3) {
+				bits |= (in.get() & 0xFFL) << bitCount;
+				bitCount += 8;
+			}
+			moves[i] = (byte) (bits & 7);
+			if (moves[i] >= Position.COL) {
+				return false;
+			}
+			bits >>>= 3;
+			bitCount -= 3;
+		}
+		for (int i = 0; i < moveCount; i++) {
+			depths[i] = hasStats ? in.get() & 0xFF : 0;
+			if (depths[i] != 0) {
+				int zigzag = (int) getVarLong(in);
+				scores[i] = (zigzag >>> 1) ^ -(zigzag & 1);
+				nodes[i] = getVarLong(in);
+				millis[i] = getVarLong(in);
+			} else {
+				scores[i] = 0;
+				nodes[i] = 0;
+				millis[i] = 0;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Name: putVarLong
+	 * Description: Writes a non-negative number 7 bits at a time, lowest bits first, with the top bit of every byte set if more follow
+	 * @param out - the buffer
+	 * @param value - the number
+	 */
+	static void putVarLong(ByteBuffer out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.put((byte) (value | 0x80));
+			value >>>= 7;
+		}
+		out.put((byte) value);
+	}
+
+	/**
+	 * Name: getVarLong
+	 * Description: Reads a number written by putVarLong()
+	 * @param in - the buffer
+	 * @return - long value of the number
+	 */
+	static long getVarLong(ByteBuffer in) {
+		long value = 0;
+		for (int shift = 0; ; shift += 7) {
+			byte b = in.get();
+			value |= (b & 0x7FL) << shift;
+			if (b >= 0) {
+				return value;
+			}
+		}
+	}
+
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < moveCount; i++) {
+			text.append(moves[i] + 1);
+		}
+		String[] results = {"AI won", "player won", "draw", "unfinished"};
+		return text + " (" + (firstPiece == ConnectFourAI.AI_PIECE ? "AI" : "player") + " first, " + results[result] + ")";
+	}
+}
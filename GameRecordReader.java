@@ -0,0 +1,158 @@
+package ICS4U1;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/*
+Class: GameRecordReader.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Reads the games of a game record file one after another, straight from a memory-mapped window of the file, so no byte is
+			 copied into a read buffer and a corpus of hundreds of millions of games is read at the speed of the disk. A file bigger
+			 than the window is mapped one window at a time, each one starting at the first game the last one did not fully hold.
+			 Every game is decoded into a GameRecord given by the caller, which is reused from one game to the next. A game that was
+			 cut off at the end of the file (the writer stopped halfway) is treated as the end of the file.
+ */
+
+public class GameRecordReader implements AutoCloseable {
+
+	static final long WINDOW_BYTES = 1L << 30; 		// the most bytes mapped at once
+
+	private final FileChannel channel;
+	private final long size; 						// size of the file when it was opened
+	private MappedByteBuffer window;
+	private long windowStart; 						// file offset of the first byte of the window
+
+	/**
+	 * Name: GameRecordReader
+	 * Description: Constructor for the GameRecordReader class
+	 * @param channel - the open file
+	 * @throws IOException - if the file cannot be read or is not a game record file
+	 */
+	private GameRecordReader(FileChannel channel) throws IOException {
+		this.channel = channel;
+		this.size = channel.size();
+		map(0);
+		if (size < GameRecord.HEADER_BYTES || window.getInt(0) != GameRecord.MAGIC || window.getInt(4) != GameRecord.VERSION) {
+			throw new IOException("Not a game record file");
+		}
+		window.position(GameRecord.HEADER_BYTES);
+	}
+
+	/**
+	 * Name: open
+	 * Description: Opens a game record file for reading, starting with its first game
+	 * @param file - path of the file
+	 * @return - the reader
+	 * @throws IOException - if the file cannot be read or is not a game record file
+	 */
+	public static GameRecordReader open(Path file) throws IOException {
+		return open(file, GameRecord.HEADER_BYTES);
+	}
+
+	/**
+	 * Name: open
+	 * Description: Opens a game record file for reading, starting with the game at a file offset
+	 * @param file - path of the file
+	 * @param offset - file offset of the first game to read, it has to be the start of a game
+	 * @return - the reader
+	 * @throws IOException - if the file cannot be read or is not a game record file
+	 */
+	static GameRecordReader open(Path file, long offset) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			GameRecordReader reader = new GameRecordReader(channel);
+			if (offset < GameRecord.HEADER_BYTES || offset > reader.size) {
+				throw new IOException("Game record offset " + offset + " is outside the file");
+			}
+			reader.map(offset);
+			return reader;
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Name: next
+	 * Description: Reads the next game
+	 * @param record - the record the game is decoded into
+	 * @return - true if a game was read, false at the end of the file
+	 * @throws IOException - if the file cannot be read or a game is corrupt
+	 */
+	public boolean next(GameRecord record) throws IOException {
+		int read = read(record);
+		if (read < 0) {
+			throw new IOException("Corrupt game record at byte " + offset());
+		}
+		return read > 0;
+	}
+
+	/**
+	 * Name: skipToEnd
+	 * Description: Reads games until the end of the file, a game that was cut off or a game that is not valid (a part of the file
+	 * 				that was never fully written)
+	 * @param record - the record the games are decoded into
+	 * @return - long value of the file offset right after the last valid game
+	 * @throws IOException - if the file cannot be read
+	 */
+	long skipToEnd(GameRecord record) throws IOException {
+		while (read(record) > 0) {
+		}
+		return offset();
+	}
+
+	/**
+	 * Name: read
+	 * Description: Reads the next game, a game that is cut off or not valid is left unread
+	 * @param record - the record the game is decoded into
+	 * @return - 1 if a game was read, 0 at the end of the file or if the game was cut off, -1 if the game is not valid
+	 * @throws IOException - if the file cannot be mapped
+	 */
+	private int read(GameRecord record) throws IOException {
+		if (window.remaining() < GameRecord.MAX_BYTES && windowStart + window.limit() < size) {
+			map(offset()); 		// the next game might not fit in the rest of the window
+		}
+		if (!window.hasRemaining()) {
+			return 0;
+		}
+		int start = window.position();
+		try {
+			if (record.decode(window)) {
+				return 1;
+			}
+			window.position(start);
+			return -1;
+		} catch (BufferUnderflowException e) { 		// cut off at the end of the file
+			window.position(start);
+			return 0;
+		}
+	}
+
+	/**
+	 * Name: offset
+	 * Description: Returns the file offset right after the last game read, the end of the valid games once next() returned false
+	 * @return - long value of the offset
+	 */
+	public long offset() {
+		return windowStart + window.position();
+	}
+
+	/**
+	 * Name: map
+	 * Description: Maps the window that starts at a file offset
+	 * @param start - the file offset
+	 * @throws IOException - if the file cannot be mapped
+	 */
+	private void map(long start) throws IOException {
+		window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_BYTES, size - start));
+		windowStart = start;
+	}
+
+	public void close() throws IOException {
+		channel.close();
+	}
+}
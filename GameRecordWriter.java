@@ -0,0 +1,138 @@
+package ICS4U1;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/*
+Class: GameRecordWriter.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Appends games to a game record file (the format is described in GameRecord). The games are encoded into a direct buffer
+			 and written to the file with one channel write every time the buffer fills up, and when the writer is flushed or closed.
+			 After every flush the games are forced to the disk and then the end of the file is saved in the header, so when a file
+			 that already exists is opened only the games written after the last finished flush are checked, and a game that was cut
+			 off or never fully written at the end (by a crash while writing) is removed without reading the rest of the file. New games always start at a record boundary. The writer can
+			 be shared by many threads.
+ */
+
+public class GameRecordWriter implements AutoCloseable {
+
+	static final int BUFFER_BYTES = 1 << 16;
+
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+	private final ByteBuffer flushedEnd = ByteBuffer.allocate(Long.BYTES); 	// the end of the file, written into the header
+
+	/**
+	 * Name: GameRecordWriter
+	 * Description: Constructor for the GameRecordWriter class
+	 * @param channel - the open file, positioned at its end
+	 */
+	private GameRecordWriter(FileChannel channel) {
+		this.channel = channel;
+	}
+
+	/**
+	 * Name: open
+	 * Description: Opens a game record file for appending, creating it if it does not exist
+	 * @param file - path of the file
+	 * @return - the writer
+	 * @throws IOException - if the file cannot be read or written, or is not a game record file
+	 */
+	public static GameRecordWriter open(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			if (channel.size() == 0) {
+				ByteBuffer header = ByteBuffer.allocate(GameRecord.HEADER_BYTES);
+				header.putInt(GameRecord.MAGIC).putInt(GameRecord.VERSION).putLong(GameRecord.HEADER_BYTES).flip();
+				while (header.hasRemaining()) {
+					channel.write(header);
+				}
+			}
+			else {
+				ByteBuffer header = ByteBuffer.allocate(GameRecord.HEADER_BYTES);
+				while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+				}
+				if (header.hasRemaining() || header.getInt(0) != GameRecord.MAGIC || header.getInt(4) != GameRecord.VERSION) {
+					throw new IOException("Not a game record file");
+				}
+				// the games before the end of the last flush are whole, so only the ones after it are checked
+				long end = header.getLong(GameRecord.FLUSHED_END);
+				if (end < GameRecord.HEADER_BYTES || end > channel.size()) {
+					end = GameRecord.HEADER_BYTES; 		// the file was cut by something else, so all of it is checked
+				}
+				try (GameRecordReader reader = GameRecordReader.open(file, end)) {
+					end = reader.skipToEnd(new GameRecord());
+				}
+				channel.truncate(end);
+			}
+			channel.position(channel.size());
+			GameRecordWriter writer = new GameRecordWriter(channel);
+			writer.saveEnd();
+			return writer;
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Name: write
+	 * Description: Appends a game, a game without any moves is left out
+	 * @param record - the game
+	 * @throws IOException - if the buffer had to be written to the file and that failed
+	 */
+	public synchronized void write(GameRecord record) throws IOException {
+		if (record.moveCount == 0) {
+			return;
+		}
+		if (buffer.remaining() < GameRecord.MAX_BYTES) {
+			flush();
+		}
+		record.encode(buffer);
+	}
+
+	/**
+	 * Name: flush
+	 * Description: Writes every buffered game to the file
+	 * @throws IOException - if the file cannot be written
+	 */
+	public synchronized void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+		saveEnd();
+	}
+
+	/**
+	 * Name: saveEnd
+	 * Description: Forces the games to the disk, then writes the end of the file into the header, so the header never points past
+	 * 				games that a crash could lose
+	 * @throws IOException - if the file cannot be written
+	 */
+	private void saveEnd() throws IOException {
+		channel.force(false);
+		flushedEnd.clear();
+		flushedEnd.putLong(0, channel.position());
+		while (flushedEnd.hasRemaining()) {
+			channel.write(flushedEnd, GameRecord.FLUSHED_END + flushedEnd.position());
+		}
+	}
+
+	/**
+	 * Name: close
+	 * Description: Writes every buffered game to the file and closes it
+	 * @throws IOException - if the file cannot be written
+	 */
+	public synchronized void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+}
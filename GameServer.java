@@ -0,0 +1,117 @@
+package ICS4U1;
+
+import java.io.IOException;
+import java.net.*;
+import java.nio.file.Paths;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.JMException;
+
+/*
+Class: GameServer.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Headless version of the game. Players connect over TCP and play with a simple line-based protocol (see GameSession),
+			 every connection running on its own virtual thread, so thousands of idle sessions cost almost nothing. The AI's searches
+			 run on a fixed pool of worker threads, which caps the CPU used by the engine no matter how many games are being played.
+			 Every session shares the same engine, the same accounts and the same game record file, and the engine's search totals are published through JMX.
+			 Usage: java ICS4U1.GameServer [port] [search threads] [milliseconds per move]
+ */
+
+public class GameServer {
+
+	static final int DEFAULT_PORT = 4000;
+
+	final Engine engine; 						// shared by every session
+	final ExecutorService searchPool; 			// runs the AI's searches
+	final SearchLimits limits; 					// budget of every AI move
+	final AccountStore accounts; 				// shared by every session
+	final GameRecordWriter records; 			// every finished game of every session is saved to it
+
+	/**
+	 * Name: GameServer
+	 * Description: Constructor for the GameServer class
+	 * @param engine - the engine that finds the AI's moves
+	 * @param searchThreads - number of searches that can run at the same time
+	 * @param limits - budget of every AI move
+	 * @param accounts - the players' accounts
+	 * @param records - where the finished games are saved
+	 */
+	public GameServer(Engine engine, int searchThreads, SearchLimits limits, AccountStore accounts, GameRecordWriter records) {
+		this.engine = engine;
+		this.accounts = accounts;
+		this.records = records;
+		this.searchPool = Executors.newFixedThreadPool(searchThreads, daemonThreads("search-worker-"));
+		this.limits = limits;
+	}
+
+	public static void main(String[] args) throws IOException, JMException {
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		int searchThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		long millis = args.length > 2 ? Long.parseLong(args[2]) : ConnectFourAI.MOVE_TIME_MS;
+
+		// every search is single-threaded, the pool already keeps every core busy when many games are running
+		Engine engine = new Engine(ConnectFourAI.TT_SIZE_MB, 1, null);
+		engine.metrics.register("server"); 		// search totals for JConsole and other JMX clients
+		try (AccountStore accounts = AccountStore.open(Paths.get(ConnectFourAI.ACCOUNTS_FILE));
+				GameRecordWriter records = GameRecordWriter.open(Paths.get(ConnectFourAI.GAMES_FILE));
+				ServerSocket socket = new ServerSocket(port)) {
+			GameServer server = new GameServer(engine, searchThreads, SearchLimits.time(millis), accounts, records);
+			System.out.println("Listening on port " + socket.getLocalPort());
+			server.serve(socket);
+		}
+	}
+
+	/**
+	 * Name: serve
+	 * Description: Accepts connections until the server socket is closed, starting a session for every one of them
+	 * @param serverSocket - the bound server socket
+	 * @throws IOException - if accepting a connection fails
+	 */
+	public void serve(ServerSocket serverSocket) throws IOException {
+		ExecutorService sessions = newSessionExecutor();
+		try {
+			while (!serverSocket.isClosed()) {
+				Socket socket;
+				try {
+					socket = serverSocket.accept();
+				} catch (SocketException e) { 		// the server socket was closed
+					break;
+				}
+				socket.setTcpNoDelay(true); 		// replies are single short lines
+				sessions.execute(new GameSession(this, socket));
+			}
+		} finally {
+			sessions.shutdown();
+		}
+	}
+
+	/**
+	 * Name: newSessionExecutor
+	 * Description: Returns an executor that starts a virtual thread for every task. Virtual threads only exist from Java 21 on, so the
+	 * 				factory method is looked up at run time, and older versions fall back to a platform thread for every task.
+	 * @return - the executor
+	 */
+	static ExecutorService newSessionExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(daemonThreads("session-"));
+		}
+	}
+
+	/**
+	 * Name: daemonThreads
+	 * Description: Returns a thread factory for numbered daemon threads
+	 * @param prefix - the start of every thread name
+	 * @return - the thread factory
+	 */
+	static ThreadFactory daemonThreads(String prefix) {
+		AtomicInteger count = new AtomicInteger();
+		return task -> {
+			Thread thread = new Thread(task, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
@@ -0,0 +1,238 @@
+package ICS4U1;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+
+/*
+Class: GameSession.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: One connection to the GameServer. The client sends one command per line and gets exactly one line back:
+			 LOGIN <username> <password>	-> OK <wins> <losses> <ties>, a new account is created if the username is not taken
+			 NEW [AI|PLAYER]				-> GAME PLAYER, or GAME AI <column> with the AI's first move (who goes first is random if not given)
+			 MOVE <column>					-> AI <column>, AI <column> LOSS, AI <column> TIE, WIN or TIE
+			 SCORE							-> OK <wins> <losses> <ties>
+			 QUIT							-> BYE
+			 Columns are 1-7 like in the console game, results are from the player's point of view, and a command that cannot be
+			 carried out gets ERR <reason>. If the AI's search fails, the reply is ERR search failed and the game is left as it was
+			 before the command (a MOVE can be sent again, a NEW game is not started).
+ */
+
+public class GameSession implements Runnable {
+
+	private final GameServer server;
+	private final Socket socket;
+	private Player player; 				// null until the client logs in
+	private String username; 			// the username of the player
+	private Position board; 			// null if no game is being played
+	private final GameRecord record = new GameRecord(); 	// the moves of the current game
+
+	/**
+	 * Name: GameSession
+	 * Description: Constructor for the GameSession class
+	 * @param server - the server the session belongs to
+	 * @param socket - the client's connection
+	 */
+	public GameSession(GameServer server, Socket socket) {
+		this.server = server;
+		this.socket = socket;
+	}
+
+	public void run() {
+		try (Socket s = socket;
+				BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+				PrintWriter out = new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8), true)) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				String reply = handle(line.trim().split("\\s+"));
+				out.println(reply);
+				if (reply.equals("BYE")) {
+					break;
+				}
+			}
+		} catch (IOException e) { 		// the client went away, nothing left to do
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Name: handle
+	 * Description: Carries out one command
+	 * @param command - the words of the command line
+	 * @return - the reply line
+	 * @throws InterruptedException - if the session is interrupted while waiting for the AI
+	 */
+	String handle(String[] command) throws InterruptedException {
+		switch (command[0].toUpperCase()) {
+		case "LOGIN":
+			return login(command);
+		case "QUIT":
+			return "BYE";
+		}
+		if (player == null) {
+			return "ERR log in first";
+		}
+		switch (command[0].toUpperCase()) {
+		case "NEW":
+			return newGame(command);
+		case "MOVE":
+			return move(command);
+		case "SCORE":
+			return score();
+		default:
+			return "ERR unknown command " + command[0];
+		}
+	}
+
+	/**
+	 * Name: login
+	 * Description: Logs into an account, or creates it if the username is not taken yet
+	 * @param command - LOGIN, the username and the password
+	 * @return - the reply line
+	 */
+	private String login(String[] command) {
+		if (command.length != 3) {
+			return "ERR usage: LOGIN <username> <password>";
+		}
+		if (!AccountStore.isValidName(command[1])) {
+			return "ERR usernames have to be 1 to " + AccountStore.MAX_NAME_BYTES + " bytes long";
+		}
+		Player account = server.accounts.login(command[1], command[2]);
+		if (account == null && !server.accounts.exists(command[1])) {
+			account = server.accounts.create(command[1], command[2]); 	// null if another session took the username first
+		}
+		if (account == null) {
+			return "ERR incorrect username or password";
+		}
+		player = account;
+		username = command[1];
+		board = null;
+		return score();
+	}
+
+	/**
+	 * Name: newGame
+	 * Description: Starts a new game, making the AI's first move if it goes first
+	 * @param command - NEW and optionally who goes first
+	 * @return - the reply line
+	 * @throws InterruptedException - if the session is interrupted while waiting for the AI
+	 */
+	private String newGame(String[] command) throws InterruptedException {
+		int firstTurn;
+		if (command.length == 1) {
+			firstTurn = (int) (Math.random() * 2);
+		}
+		else if (command[1].equalsIgnoreCase("AI")) {
+			firstTurn = 0;
+		}
+		else if (command[1].equalsIgnoreCase("PLAYER")) {
+			firstTurn = 1;
+		}
+		else {
+			return "ERR usage: NEW [AI|PLAYER]";
+		}
+		board = new Position(firstTurn);
+		record.reset(firstTurn == 0 ? ConnectFourAI.AI_PIECE : ConnectFourAI.PLAYER_PIECE, true);
+		if (firstTurn == 1) {
+			return "GAME PLAYER";
+		}
+		int col = aiMove();
+		if (col < 0) {
+			board = null; 		// no game was started
+			return "ERR search failed";
+		}
+		return "GAME AI " + (col + 1); 		// the AI cannot end the game with its first move
+	}
+
+	/**
+	 * Name: move
+	 * Description: Drops the player's piece, then lets the AI answer if the game is not over
+	 * @param command - MOVE and the column (1-7)
+	 * @return - the reply line
+	 * @throws InterruptedException - if the session is interrupted while waiting for the AI
+	 */
+	private String move(String[] command) throws InterruptedException {
+		if (board == null) {
+			return "ERR no game is being played";
+		}
+		int col;
+		try {
+			col = Integer.parseInt(command.length == 2 ? command[1] : "") - 1;
+		} catch (NumberFormatException e) {
+			return "ERR usage: MOVE <column>";
+		}
+		if (col < 0 || col >= ConnectFourAI.COL) {
+			return "ERR column out of range";
+		}
+		if (ConnectFourAI.nextOpenRow(board, col) < 0) {
+			return "ERR column already filled";
+		}
+
+		ConnectFourAI.dropPiece(board, col, ConnectFourAI.PLAYER_PIECE);
+		record.add(col);
+		if (ConnectFourAI.isTerminalNode(board)) {
+			return result();
+		}
+		int aiCol = aiMove();
+		if (aiCol < 0) {
+			board.undo(col); 			// take the player's move back so that it can be sent again
+			record.removeLast();
+			return "ERR search failed";
+		}
+		String reply = "AI " + (aiCol + 1);
+		if (ConnectFourAI.isTerminalNode(board)) {
+			reply += " " + result();
+		}
+		return reply;
+	}
+
+	/**
+	 * Name: aiMove
+	 * Description: Has a search worker find the AI's move and drops the AI's piece. A failed search is counted in the engine's
+	 * 				metrics, reported on the error stream, and nothing is played.
+	 * @return - int value of the column the AI played, -1 if the search failed
+	 * @throws InterruptedException - if the session is interrupted while waiting for the AI
+	 */
+	private int aiMove() throws InterruptedException {
+		Position position = board;
+		SearchResult result;
+		try {
+			result = server.searchPool.submit(() -> server.engine.bestMove(position, server.limits)).get();
+		} catch (ExecutionException e) {
+			server.engine.metrics.recordFailure();
+			System.err.println("Search failed for " + username + ": " + e.getCause());
+			e.getCause().printStackTrace();
+			return -1;
+		}
+		record.add(result);
+		ConnectFourAI.dropPiece(board, result.column, ConnectFourAI.AI_PIECE);
+		return result.column;
+	}
+
+	/**
+	 * Name: result
+	 * Description: Records the result of the finished game in the player's account and saves the game
+	 * @return - WIN, LOSS or TIE from the player's point of view
+	 */
+	private String result() {
+		int winner = ConnectFourAI.recordResult(server.accounts, username, player, board);
+		ConnectFourAI.saveGame(server.records, record, board);
+		board = null;
+		return winner == ConnectFourAI.PLAYER_PIECE ? "WIN" : winner == ConnectFourAI.AI_PIECE ? "LOSS" : "TIE";
+	}
+
+	/**
+	 * Name: score
+	 * Description: Returns the player's current score (the account may be playing in other sessions too)
+	 * @return - the reply line
+	 */
+	private String score() {
+		server.accounts.refresh(username, player);
+		synchronized (player) {
+			return "OK " + player.wins + " " + player.losses + " " + player.ties;
+		}
+	}
+}
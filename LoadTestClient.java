@@ -0,0 +1,137 @@
+package ICS4U1;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/*
+Class: LoadTestClient.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Load test for the GameServer. Opens many sessions at once, each one logging in and playing games with random legal
+			 moves, and measures the time from sending every MOVE to getting the AI's reply. Prints the number of moves, the moves per
+			 second and the 50th and 99th percentile latency.
+			 Usage: java ICS4U1.LoadTestClient [host] [port] [sessions] [games per session]
+ */
+
+public class LoadTestClient {
+
+	public static void main(String[] args) throws InterruptedException {
+		String host = args.length > 0 ? args[0] : "localhost";
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+		int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+		int games = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+		List<Future<long[]>> results = new ArrayList<>();
+		ExecutorService clients = GameServer.newSessionExecutor();
+		long start = System.nanoTime();
+		for (int i = 0; i < sessions; i++) {
+			String username = "load" + i;
+			results.add(clients.submit(() -> play(host, port, username, games)));
+		}
+
+		// gather every latency, sessions that failed are counted but not measured
+		long[] latencies = new long[0];
+		int failed = 0;
+		for (Future<long[]> result : results) {
+			try {
+				long[] session = result.get();
+				long[] merged = Arrays.copyOf(latencies, latencies.length + session.length);
+				System.arraycopy(session, 0, merged, latencies.length, session.length);
+				latencies = merged;
+			} catch (ExecutionException e) {
+				failed++;
+				System.out.println("Session failed: " + e.getCause());
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		clients.shutdown();
+
+		Arrays.sort(latencies);
+		System.out.printf("%d sessions (%d failed), %d moves in %.1f s, %.1f moves/s%n", sessions, failed, latencies.length, seconds,
+				latencies.length / seconds);
+		if (latencies.length > 0) {
+			System.out.printf("latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n", percentile(latencies, 50) / 1e6,
+					percentile(latencies, 99) / 1e6, latencies[latencies.length - 1] / 1e6);
+		}
+	}
+
+	/**
+	 * Name: play
+	 * Description: Plays the given number of games in one session, the player always going first
+	 * @param host - the server's host name
+	 * @param port - the server's port
+	 * @param username - the account to log in with
+	 * @param games - number of games to play
+	 * @return - long[] of the latency of every move in nanoseconds
+	 * @throws IOException - if the connection fails or the server sends an unexpected reply
+	 */
+	static long[] play(String host, int port, String username, int games) throws IOException {
+		long[] latencies = new long[games * (ConnectFourAI.ROW * ConnectFourAI.COL / 2)];
+		int count = 0;
+		try (Socket socket = new Socket(host, port);
+				BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+				PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true)) {
+			socket.setTcpNoDelay(true);
+			request(in, out, "LOGIN " + username + " password", "OK");
+			for (int game = 0; game < games; game++) {
+				request(in, out, "NEW PLAYER", "GAME PLAYER");
+				Position board = new Position(1);
+				while (true) {
+					// a random column that is not full yet
+					int col;
+					do {
+						col = ThreadLocalRandom.current().nextInt(ConnectFourAI.COL);
+					} while (!board.canPlay(col));
+					board.play(col, ConnectFourAI.PLAYER_PIECE);
+
+					long sent = System.nanoTime();
+					String[] reply = request(in, out, "MOVE " + (col + 1), "").split(" ");
+					latencies[count++] = System.nanoTime() - sent;
+					if (!reply[0].equals("AI")) {
+						break; 			// WIN or TIE
+					}
+					board.play(Integer.parseInt(reply[1]) - 1, ConnectFourAI.AI_PIECE);
+					if (reply.length > 2) {
+						break; 			// LOSS or TIE
+					}
+				}
+			}
+			request(in, out, "QUIT", "BYE");
+		}
+		return Arrays.copyOf(latencies, count);
+	}
+
+	/**
+	 * Name: request
+	 * Description: Sends one command and reads the reply
+	 * @param in - the reader of the connection
+	 * @param out - the writer of the connection
+	 * @param command - the command line
+	 * @param expected - what the reply has to start with
+	 * @return - the reply line
+	 * @throws IOException - if the connection fails or the reply is unexpected
+	 */
+	static String request(BufferedReader in, PrintWriter out, String command, String expected) throws IOException {
+		out.println(command);
+		String reply = in.readLine();
+		if (reply == null || !reply.startsWith(expected) || reply.startsWith("ERR")) {
+			throw new IOException(command + " got " + reply);
+		}
+		return reply;
+	}
+
+	/**
+	 * Name: percentile
+	 * Description: Returns a percentile of sorted values (nearest rank)
+	 * @param sorted - the values in ascending order
+	 * @param p - the percentile (0-100)
+	 * @return - long value of the percentile
+	 */
+	static long percentile(long[] sorted, double p) {
+		int rank = (int) Math.ceil(p / 100 * sorted.length);
+		return sorted[Math.max(0, rank - 1)];
+	}
+}
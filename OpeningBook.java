@@ -0,0 +1,130 @@
+package ICS4U1;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/*
+Class: OpeningBook.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Precomputed best moves for the AI in the first few plies of the game, read straight from a memory-mapped file.
+			 The file is a 16-byte header (magic number, version, number of plies, number of entries) followed by sorted 8-byte entries,
+			 each one holding the key of a position with the AI to move (shifted left by 3 bits) and the best column (the low 3 bits).
+			 Only the smaller key of a position and its mirror image is stored, so the book is about half the size. Since the file is
+			 mapped instead of read, opening it costs nothing and every engine process on the same machine shares the same pages.
+ */
+
+public class OpeningBook {
+
+	static final int MAGIC = 0x43344F42; 	// "C4OB"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 16;
+
+	private final MappedByteBuffer buffer;
+	private final int plies; 			// positions with more pieces than this are never in the book
+	private final int entries;
+
+	/**
+	 * Name: OpeningBook
+	 * Description: Constructor for the OpeningBook class
+	 * @param buffer - the mapped book file
+	 * @throws IOException - if the file is not an opening book
+	 */
+	private OpeningBook(MappedByteBuffer buffer) throws IOException {
+		if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("Not an opening book file");
+		}
+		this.buffer = buffer;
+		plies = buffer.getInt(8);
+		entries = buffer.getInt(12);
+		if (buffer.capacity() != HEADER_BYTES + 8L * entries) {
+			throw new IOException("Opening book file is truncated");
+		}
+	}
+
+	/**
+	 * Name: open
+	 * Description: Maps an opening book file into memory
+	 * @param file - path of the book file
+	 * @return - the opening book
+	 * @throws IOException - if the file cannot be read or is not an opening book
+	 */
+	public static OpeningBook open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())); 	// the mapping stays valid after closing
+		}
+	}
+
+	/**
+	 * Name: probe
+	 * Description: Looks up the best column for the AI in the book
+	 * @param board - bitboard of the current board, the AI is the one to move
+	 * @return - int value of the best column, -1 if the position is not in the book
+	 */
+	public int probe(Position board) {
+		if (board.moves > plies) {
+			return -1;
+		}
+		long key = board.key();
+		long mirrored = Position.mirrorKey(key);
+		long canonical = Math.min(key, mirrored);
+
+		// binary search over the sorted entries
+		int low = 0;
+		int high = entries - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			long entry = buffer.getLong(HEADER_BYTES + 8 * mid);
+			long entryKey = entry >>> 3;
+			if (entryKey < canonical) {
+				low = mid + 1;
+			}
+			else if (entryKey > canonical) {
+				high = mid - 1;
+			}
+			else {
+				int col = (int) (entry & 7);
+				return canonical == key ? col : Position.COL - 1 - col; 	// the book stores the mirrored position
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Name: entry
+	 * Description: Packs a position and its best column into a book entry, using the smaller key of the position and its mirror image
+	 * @param key - the key of the position
+	 * @param col - the best column
+	 * @return - long value of the entry
+	 */
+	static long entry(long key, int col) {
+		long mirrored = Position.mirrorKey(key);
+		if (mirrored < key) {
+			return (mirrored << 3) | (Position.COL - 1 - col);
+		}
+		return (key << 3) | col;
+	}
+
+	/**
+	 * Name: write
+	 * Description: Sorts the entries and writes them into a book file
+	 * @param file - path of the book file
+	 * @param plies - the number of plies covered by the book
+	 * @param bookEntries - entries made by entry(), sorted in place
+	 * @throws IOException - if the file cannot be written
+	 */
+	static void write(Path file, int plies, long[] bookEntries) throws IOException {
+		java.util.Arrays.sort(bookEntries);
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(plies);
+			out.writeInt(bookEntries.length);
+			for (long entry : bookEntries) {
+				out.writeLong(entry);
+			}
+		}
+	}
+}
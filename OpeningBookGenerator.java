@@ -0,0 +1,82 @@
+package ICS4U1;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/*
+Class: OpeningBookGenerator.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Builds the opening book. Every position with at most the given number of plies where the AI is the one to move
+			 (both when the AI went first and when the player did) is searched with the engine, and the best column is saved.
+			 Positions that are mirror images of each other are only searched once.
+			 Usage: java ICS4U1.OpeningBookGenerator [book file] [plies] [milliseconds per position] [max depth]
+ */
+
+public class OpeningBookGenerator {
+
+	public static void main(String[] args) throws IOException {
+		Path file = Paths.get(args.length > 0 ? args[0] : ConnectFourAI.BOOK_FILE);
+		int plies = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+		long millis = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+		int maxDepth = args.length > 3 ? Integer.parseInt(args[3]) : Position.ROW * Position.COL;
+
+		// collect one move sequence for every position (mirror images count as the same position)
+		Map<Long, String> positions = new LinkedHashMap<>();
+		collect(new Position(), "", ConnectFourAI.AI_PIECE, plies, positions);
+		collect(new Position(), "", ConnectFourAI.PLAYER_PIECE, plies, positions);
+		System.out.println(positions.size() + " positions to search");
+
+		Engine engine = new Engine(ConnectFourAI.TT_SIZE_MB, Runtime.getRuntime().availableProcessors(), null);
+		SearchLimits limits = new SearchLimits(millis, Long.MAX_VALUE, maxDepth);
+		long[] entries = new long[positions.size()];
+		int count = 0;
+		for (String moves : positions.values()) {
+			// the AI is the one to move, so it went first if an even number of moves were played
+			int firstPiece = moves.length() % 2 == 0 ? ConnectFourAI.AI_PIECE : ConnectFourAI.PLAYER_PIECE;
+			Position board = Position.fromMoves(moves, firstPiece);
+			engine.clear();
+			int col = engine.bestMove(board, limits).column;
+			entries[count++] = OpeningBook.entry(board.key(), col);
+
+			if (count % 100 == 0) {
+				System.out.println(count + " / " + entries.length);
+			}
+		}
+
+		OpeningBook.write(file, plies, entries);
+		System.out.println("Wrote " + entries.length + " positions to " + file);
+	}
+
+	/**
+	 * Name: collect
+	 * Description: Walks every move sequence up to the given length and saves the positions where the AI is the one to move
+	 * @param board - the current board
+	 * @param moves - the moves played so far (columns 1-7)
+	 * @param piece - the piece of the side to move
+	 * @param plies - the deepest position to collect
+	 * @param positions - map from the smaller key of a position and its mirror image to its move sequence
+	 */
+	static void collect(Position board, String moves, int piece, int plies, Map<Long, String> positions) {
+		if (ConnectFourAI.isTerminalNode(board)) {
+			return;
+		}
+		if (piece == ConnectFourAI.AI_PIECE) {
+			long key = board.key();
+			if (positions.putIfAbsent(Math.min(key, Position.mirrorKey(key)), moves) != null) {
+				return; 	// already reached through another move order
+			}
+		}
+		if (board.moves == plies) {
+			return;
+		}
+		for (int col = 0; col < Position.COL; col++) {
+			if (board.canPlay(col)) {
+				board.play(col, piece);
+				collect(board, moves + (col + 1), 1 - piece, plies, positions);
+				board.undo(col);
+			}
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package ICS4U1;
+
+/*
+Class: Player.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: The account of one player: the username and password it was logged in with and the results of its games against the AI.
+			 The accounts are kept on disk by AccountStore, which fills in the results when the player logs in.
+ */
+
+public class Player {
+
+	String username;
+	String password;
+	int wins; 			// games the player won against the AI
+	int losses; 		// games the AI won
+	int ties;
+
+	/**
+	 * Name: Player
+	 * Description: Constructor for the Player class, with no results
+	 * @param username - the username of the account
+	 * @param password - the password of the account
+	 */
+	public Player(String username, String password) {
+		this.username = username;
+		this.password = password;
+	}
+
+	/**
+	 * Name: login
+	 * Description: Checks a password against the account's password
+	 * @param password - the password entered
+	 * @return - true if the password is correct
+	 */
+	public boolean login(String password) {
+		return this.password.equals(password);
+	}
+
+	public String toString() {
+		return username + ": " + wins + " wins, " + losses + " losses, " + ties + " ties";
+	}
+}
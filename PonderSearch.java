@@ -0,0 +1,46 @@
+package ICS4U1;
+
+/*
+Class: PonderSearch.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: A search that runs in the background while the opponent is thinking. It searches the position with the opponent to
+			 move, which means every one of the opponent's replies gets searched as well, and all of those results end up in the
+			 engine's transposition table. Once the real move arrives the ponder search is stopped, and the engine's next search
+			 starts with most of its tree already in the table.
+ */
+
+public class PonderSearch {
+
+	private final Searcher searcher;
+	private final Thread thread;
+
+	/**
+	 * Name: PonderSearch
+	 * Description: Constructor for the PonderSearch class, starts the background search
+	 * @param searcher - a searcher of the engine, on the board with the opponent to move
+	 */
+	PonderSearch(Searcher searcher) {
+		this.searcher = searcher;
+		boolean maximizingPlayer = searcher.board.sideToMove() == ConnectFourAI.AI_PIECE;
+		int lastDepth = Position.ROW * Position.COL - searcher.board.moves;
+		thread = new Thread(() -> searcher.iterate(1, lastDepth, Long.MAX_VALUE, Long.MAX_VALUE, maximizingPlayer), "ponder");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Name: stop
+	 * Description: Stops the background search and waits for it to finish (within about a thousand nodes)
+	 * @return - int value of the depth of the deepest iteration that finished
+	 */
+	public int stop() {
+		searcher.abort = true;
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return searcher.completedDepth;
+	}
+}
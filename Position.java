@@ -0,0 +1,397 @@
+package ICS4U1;
+
+/*
+Class: Position.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Bitboard representation of a Connect Four board used by the search engine. Each piece type is stored in its own 64-bit mask,
+			 with every column taking 7 bits (6 playable cells plus one empty sentinel bit on top, numbered from the bottom up), and the
+			 height of every column is kept as the index of its next free bit.
+ */
+
+public class Position {
+
+	static final int ROW = ConnectFourAI.ROW;
+	static final int COL = ConnectFourAI.COL;
+	static final int H1 = ROW + 1; 							// bits per column (including the sentinel bit)
+	static final long BOTTOM = bottomMask(); 				// the lowest bit of every column
+	static final long BOARD_MASK = BOTTOM * ((1L << ROW) - 1); 	// every playable cell of the board
+	static final int[] LINE_SHIFTS = {H1, H1 - 1, H1 + 1}; 		// bit distance between neighbours in a row and along both diagonals
+
+	// every four-cell window on the board, in the same order that boardScore() has always scanned them
+	// (rows, columns, negatively sloped diagonals, positively sloped diagonals)
+	static final long[] WINDOWS = new long[69];
+	static final boolean[] VERTICAL = new boolean[69]; 		// true if the window is a column window
+
+	static {
+		int w = 0;
+
+		// horizontal
+		for (int row = 0; row < ROW; row++) {
+			for (int col = 0; col < COL - 3; col++) {
+				for (int i = 0; i < 4; i++) {
+					WINDOWS[w] |= cellBit(row, col + i);
+				}
+				w++;
+			}
+		}
+
+		// vertical
+		for (int col = 0; col < COL; col++) {
+			for (int row = 0; row < ROW - 3; row++) {
+				for (int i = 0; i < 4; i++) {
+					WINDOWS[w] |= cellBit(row + i, col);
+				}
+				VERTICAL[w] = true;
+				w++;
+			}
+		}
+
+		// negatively sloped diagonals
+		for (int row = 0; row < ROW - 3; row++) {
+			for (int col = 0; col < COL - 3; col++) {
+				for (int i = 0; i < 4; i++) {
+					WINDOWS[w] |= cellBit(row + i, col + i);
+				}
+				w++;
+			}
+		}
+
+		// positively sloped diagonals
+		for (int row = 3; row < ROW; row++) {
+			for (int col = 0; col < COL - 3; col++) {
+				for (int i = 0; i < 4; i++) {
+					WINDOWS[w] |= cellBit(row - i, col + i);
+				}
+				w++;
+			}
+		}
+	}
+
+	long[] pieces = new long[2]; 	// pieces[AI_PIECE] and pieces[PLAYER_PIECE]
+	int[] height = new int[COL]; 	// index of the next free bit in every column
+	int moves; 						// number of pieces on the board
+	final int firstTurn; 			// who went first in this game (0 = AI, 1 = player), used by the evaluation
+	Evaluator eval; 				// heuristic score kept up to date with every move
+
+	/**
+	 * Name: Position
+	 * Description: Constructor for an empty board where the AI goes first
+	 */
+	public Position() {
+		this(0);
+	}
+
+	/**
+	 * Name: Position
+	 * Description: Constructor for an empty board
+	 * @param firstTurn - who goes first (0 = AI, 1 = player)
+	 */
+	public Position(int firstTurn) {
+		this(firstTurn, EvalWeights.DEFAULT);
+	}
+
+	/**
+	 * Name: Position
+	 * Description: Constructor for an empty board
+	 * @param firstTurn - who goes first (0 = AI, 1 = player)
+	 * @param weights - the weights the board is evaluated with
+	 */
+	public Position(int firstTurn, EvalWeights weights) {
+		this.firstTurn = firstTurn;
+		eval = new Evaluator(weights);
+		for (int col = 0; col < COL; col++) {
+			height[col] = col * H1;
+		}
+	}
+
+	/**
+	 * Name: Position
+	 * Description: Copy constructor
+	 * @param other - the position to be copied
+	 */
+	public Position(Position other) {
+		pieces[0] = other.pieces[0];
+		pieces[1] = other.pieces[1];
+		System.arraycopy(other.height, 0, height, 0, COL);
+		moves = other.moves;
+		firstTurn = other.firstTurn;
+		eval = new Evaluator(other.eval);
+	}
+
+	/**
+	 * Name: Position
+	 * Description: Copy constructor that evaluates the copy with other weights. The pieces are dropped again column by column,
+	 * 				which gives the same evaluation as the original move order since the evaluation only depends on the board.
+	 * @param other - the position to be copied
+	 * @param weights - the weights the copy is evaluated with
+	 */
+	public Position(Position other, EvalWeights weights) {
+		this(other.firstTurn, weights);
+		for (int col = 0; col < COL; col++) {
+			for (int bit = col * H1; bit < other.height[col]; bit++) {
+				play(col, (other.pieces[ConnectFourAI.AI_PIECE] & (1L << bit)) != 0 ? ConnectFourAI.AI_PIECE : ConnectFourAI.PLAYER_PIECE);
+			}
+		}
+	}
+
+	/**
+	 * Name: fromMoves
+	 * Description: Builds a position by playing a sequence of columns (1-7, like the player types them), the two sides taking turns
+	 * @param moves - the sequence of columns, for example "4453"
+	 * @param firstPiece - the piece that plays the first move
+	 * @return - the position after the moves
+	 * @throws IllegalArgumentException - if a column is out of range or already filled
+	 */
+	public static Position fromMoves(String moves, int firstPiece) {
+		Position position = new Position(firstPiece == ConnectFourAI.AI_PIECE ? 0 : 1);
+		int piece = firstPiece;
+		for (int i = 0; i < moves.length(); i++) {
+			int col = moves.charAt(i) - '1';
+			if (col < 0 || col >= COL || !position.canPlay(col)) {
+				throw new IllegalArgumentException("Invalid move " + moves.charAt(i) + " at index " + i + " of " + moves);
+			}
+			position.play(col, piece);
+			piece = 1 - piece;
+		}
+		return position;
+	}
+
+	/**
+	 * Name: canPlay
+	 * Description: Checks if a piece can still be dropped into the column
+	 * @param col - column number
+	 * @return - true if the column is not full
+	 */
+	public boolean canPlay(int col) {
+		return height[col] < col * H1 + ROW;
+	}
+
+	/**
+	 * Name: play
+	 * Description: Drops a piece into the column (the column must not be full)
+	 * @param col - column number
+	 * @param piece - the player's piece or the AI's piece
+	 */
+	public void play(int col, int piece) {
+		int bit = height[col]++;
+		pieces[piece] |= 1L << bit;
+		moves++;
+		eval.play(this, bit, piece);
+	}
+
+	/**
+	 * Name: undo
+	 * Description: Takes back the top piece of the column (the reverse of play())
+	 * @param col - column number
+	 */
+	public void undo(int col) {
+		int bit = --height[col];
+		int piece = (pieces[ConnectFourAI.AI_PIECE] & (1L << bit)) != 0 ? ConnectFourAI.AI_PIECE : ConnectFourAI.PLAYER_PIECE;
+		pieces[piece] &= ~(1L << bit);
+		moves--;
+		eval.undo(this, bit, piece);
+	}
+
+	/**
+	 * Name: nextOpenRow
+	 * Description: Finds the row (counted from the top, like the printed board) where a piece dropped into the column lands
+	 * @param col - column number
+	 * @return - int value indicating the row number, -1 if the column is full
+	 */
+	public int nextOpenRow(int col) {
+		return ROW - 1 - (height[col] - col * H1);
+	}
+
+	/**
+	 * Name: mask
+	 * Description: Returns every occupied cell of the board
+	 * @return - long bitboard of both players' pieces
+	 */
+	public long mask() {
+		return pieces[0] | pieces[1];
+	}
+
+	/**
+	 * Name: key
+	 * Description: Returns a unique 49-bit key for the position (AI pieces plus one extra bit on top of every column)
+	 * @return - long value of the key
+	 */
+	public long key() {
+		return pieces[ConnectFourAI.AI_PIECE] + mask() + BOTTOM;
+	}
+
+	/**
+	 * Name: searchKey
+	 * Description: Returns the key used by the transposition table. The heuristic scores depend on who went first, so the two cases
+	 * 				get different keys and games with either first player can share one table.
+	 * @return - long value of the key with firstTurn in the top bit
+	 */
+	public long searchKey() {
+		return key() | ((long) firstTurn << 63);
+	}
+
+	/**
+	 * Name: sideToMove
+	 * Description: Returns whose turn it is
+	 * @return - the AI's piece or the player's piece
+	 */
+	public int sideToMove() {
+		return (moves + firstTurn) % 2 == 0 ? ConnectFourAI.AI_PIECE : ConnectFourAI.PLAYER_PIECE;
+	}
+
+	/**
+	 * Name: mirrorKey
+	 * Description: Returns the key of the left-right mirror image of a position (every column of a key takes its own 7 bits)
+	 * @param key - the key of a position
+	 * @return - long value of the key of the mirrored position
+	 */
+	public static long mirrorKey(long key) {
+		long mirrored = 0;
+		for (int col = 0; col < COL; col++) {
+			mirrored |= ((key >>> (col * H1)) & ((1L << H1) - 1)) << ((COL - 1 - col) * H1);
+		}
+		return mirrored;
+	}
+
+	/**
+	 * Name: cell
+	 * Description: Returns the character that printBoard() outputs for a cell
+	 * @param row - row number (counted from the top)
+	 * @param col - column number
+	 * @return - '*' for an empty cell, otherwise the piece number as a char
+	 */
+	public char cell(int row, int col) {
+		long bit = cellBit(row, col);
+		if ((pieces[ConnectFourAI.AI_PIECE] & bit) != 0) {
+			return (char) (ConnectFourAI.AI_PIECE + 48);
+		}
+		if ((pieces[ConnectFourAI.PLAYER_PIECE] & bit) != 0) {
+			return (char) (ConnectFourAI.PLAYER_PIECE + 48);
+		}
+		return '*';
+	}
+
+	/**
+	 * Name: hasFour
+	 * Description: Checks if one side has four in a line. The evaluator counts the completed windows every time a piece is dropped or
+	 * 				taken back, looking only at the windows through that piece, so this is a single lookup instead of a board scan.
+	 * @param piece - the player's piece or the AI's piece
+	 * @return - true if the side has four pieces in a line
+	 */
+	public boolean hasFour(int piece) {
+		return eval.fours[piece] != 0;
+	}
+
+	/**
+	 * Name: isOver
+	 * Description: Checks if the game has ended, by either side having four in a line or by the board being full
+	 * @return - true if the game has ended
+	 */
+	public boolean isOver() {
+		return (eval.fours[0] | eval.fours[1]) != 0 || moves == ROW * COL;
+	}
+
+	/**
+	 * Name: alignment
+	 * Description: Checks a bitboard for four in a line by shifting it onto itself in every direction
+	 * @param pos - bitboard of one player's pieces
+	 * @return - true if there are four pieces in a line
+	 */
+	public static boolean alignment(long pos) {
+		// horizontal
+		long m = pos & (pos >>> H1);
+		if ((m & (m >>> (2 * H1))) != 0) {
+			return true;
+		}
+
+		// vertical
+		m = pos & (pos >>> 1);
+		if ((m & (m >>> 2)) != 0) {
+			return true;
+		}
+
+		// diagonal (one way)
+		m = pos & (pos >>> (H1 - 1));
+		if ((m & (m >>> (2 * (H1 - 1)))) != 0) {
+			return true;
+		}
+
+		// diagonal (the other way)
+		m = pos & (pos >>> (H1 + 1));
+		if ((m & (m >>> (2 * (H1 + 1)))) != 0) {
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Name: winningCells
+	 * Description: Finds every empty cell that would complete four in a line for one player (whether the cell can be played right
+	 * 				now or not), by shifting the player's pieces in every direction
+	 * @param pos - bitboard of one player's pieces
+	 * @param mask - bitboard of every piece on the board
+	 * @return - long bitboard of the winning cells
+	 */
+	public static long winningCells(long pos, long mask) {
+		// vertical
+		long r = (pos << 1) & (pos << 2) & (pos << 3);
+
+		// horizontal and both diagonals
+		for (int shift : LINE_SHIFTS) {
+			long p = (pos << shift) & (pos << (2 * shift));
+			r |= p & (pos << (3 * shift)); 		// three pieces on one side
+			r |= p & (pos >>> shift); 			// two on one side, one on the other
+			p = (pos >>> shift) & (pos >>> (2 * shift));
+			r |= p & (pos << shift);
+			r |= p & (pos >>> (3 * shift));
+		}
+
+		return r & (BOARD_MASK ^ mask);
+	}
+
+	/**
+	 * Name: possible
+	 * Description: Returns the cells where a piece can be dropped right now (the lowest empty cell of every column)
+	 * @param mask - bitboard of every piece on the board
+	 * @return - long bitboard of the playable cells
+	 */
+	public static long possible(long mask) {
+		return (mask + BOTTOM) & BOARD_MASK;
+	}
+
+	/**
+	 * Name: cellBit
+	 * Description: Returns the bit of a cell, the row is counted from the top like the printed board
+	 * @param row - row number
+	 * @param col - column number
+	 * @return - long value with only the bit of the cell set
+	 */
+	static long cellBit(int row, int col) {
+		return 1L << (col * H1 + ROW - 1 - row);
+	}
+
+	/**
+	 * Name: bottomMask
+	 * Description: Builds the mask with the lowest bit of every column set
+	 * @return - long value of the mask
+	 */
+	static long bottomMask() {
+		long mask = 0;
+		for (int col = 0; col < COL; col++) {
+			mask |= 1L << (col * H1);
+		}
+		return mask;
+	}
+
+	/**
+	 * Name: columnMask
+	 * Description: Returns all the playable cells of a column
+	 * @param col - column number
+	 * @return - long value of the mask
+	 */
+	static long columnMask(int col) {
+		return ((1L << ROW) - 1) << (col * H1);
+	}
+}
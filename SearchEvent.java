@@ -0,0 +1,54 @@
+package ICS4U1;
+
+import jdk.jfr.*;
+
+/*
+Class: SearchEvent.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Java Flight Recorder event for one Engine.bestMove() call. Recordings show every move the engine searched, how long it
+			 took and the statistics of the search. When no recording is running the event is never committed and costs next to nothing.
+ */
+
+@Name("ICS4U1.Search")
+@Label("Search")
+@Category("Connect Four")
+@Description("One call of Engine.bestMove()")
+public class SearchEvent extends Event {
+
+	@Label("Column")
+	int column;
+
+	@Label("Score")
+	int score;
+
+	@Label("Depth")
+	int depth;
+
+	@Label("Nodes")
+	long nodes;
+
+	@Label("Book Move")
+	boolean bookMove;
+
+	@Label("Cutoff Rate")
+	@Percentage
+	double cutoffRate;
+
+	@Label("First Move Cutoff Rate")
+	@Percentage
+	double firstMoveCutoffRate;
+
+	@Label("Leaf Evaluations")
+	long leafEvaluations;
+
+	@Label("Terminal Hits")
+	long terminalHits;
+
+	@Label("Eval Cache Hit Rate")
+	@Percentage
+	double evalCacheHitRate;
+
+	@Label("Branching Factor")
+	double branchingFactor;
+}
@@ -0,0 +1,52 @@
+package ICS4U1;
+
+/*
+Class: SearchLimits.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: The budget of one Engine.bestMove() call: a wall-clock time, a node count and a maximum depth. The search stops at
+			 whichever limit is reached first and plays the best move of the deepest iteration that was finished.
+ */
+
+public class SearchLimits {
+
+	final long timeMillis; 		// wall-clock budget in milliseconds
+	final long maxNodes; 		// node budget of the main search thread
+	final int maxDepth; 		// the deepest iteration to search
+
+	/**
+	 * Name: SearchLimits
+	 * Description: Constructor for the SearchLimits class
+	 * @param timeMillis - wall-clock budget in milliseconds
+	 * @param maxNodes - node budget of the main search thread
+	 * @param maxDepth - the deepest iteration to search
+	 */
+	public SearchLimits(long timeMillis, long maxNodes, int maxDepth) {
+		if (timeMillis <= 0 || maxNodes <= 0 || maxDepth <= 0) {
+			throw new IllegalArgumentException("Search limits must be positive");
+		}
+		this.timeMillis = timeMillis;
+		this.maxNodes = maxNodes;
+		this.maxDepth = maxDepth;
+	}
+
+	/**
+	 * Name: time
+	 * Description: Limits the search by wall-clock time only
+	 * @param timeMillis - wall-clock budget in milliseconds
+	 * @return - the search limits
+	 */
+	public static SearchLimits time(long timeMillis) {
+		return new SearchLimits(timeMillis, Long.MAX_VALUE, Position.ROW * Position.COL);
+	}
+
+	/**
+	 * Name: depth
+	 * Description: Limits the search by depth only
+	 * @param maxDepth - the deepest iteration to search
+	 * @return - the search limits
+	 */
+	public static SearchLimits depth(int maxDepth) {
+		return new SearchLimits(Long.MAX_VALUE, Long.MAX_VALUE, maxDepth);
+	}
+}
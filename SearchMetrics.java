@@ -0,0 +1,123 @@
+package ICS4U1;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.*;
+
+/*
+Class: SearchMetrics.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Running totals of every search made by one engine. Many threads can add to them at the same time without blocking each
+			 other, and the totals can be published through JMX with register().
+ */
+
+public class SearchMetrics implements SearchMetricsMXBean {
+
+	private final LongAdder searches = new LongAdder();
+	private final LongAdder bookMoves = new LongAdder();
+	private final LongAdder nodes = new LongAdder();
+	private final LongAdder nanos = new LongAdder();
+	private final LongAdder depths = new LongAdder(); 			// sum of the depths of the searched moves
+	private final LongAdder interiorNodes = new LongAdder();
+	private final LongAdder cutoffs = new LongAdder();
+	private final LongAdder firstMoveCutoffs = new LongAdder();
+	private final LongAdder leafEvaluations = new LongAdder();
+	private final LongAdder terminalHits = new LongAdder();
+	private final LongAdder failedSearches = new LongAdder(); 	// searches that threw instead of returning a move
+	private volatile double lastBranchingFactor;
+
+	/**
+	 * Name: record
+	 * Description: Adds one search to the totals
+	 * @param result - the result of the search
+	 */
+	void record(SearchResult result) {
+		searches.increment();
+		if (result.bookMove) {
+			bookMoves.increment();
+			return;
+		}
+		nodes.add(result.nodes);
+		depths.add(result.depth);
+		SearchStats stats = result.stats;
+		if (stats != null) {
+			nanos.add(stats.nanos);
+			interiorNodes.add(stats.interiorNodes);
+			cutoffs.add(stats.cutoffs);
+			firstMoveCutoffs.add(stats.firstMoveCutoffs);
+			leafEvaluations.add(stats.leafEvaluations);
+			terminalHits.add(stats.terminalHits);
+			lastBranchingFactor = stats.branchingFactor();
+		}
+		else {
+			nanos.add(result.millis * 1000000);
+		}
+	}
+
+	/**
+	 * Name: recordFailure
+	 * Description: Counts a search that failed with an exception
+	 */
+	void recordFailure() {
+		failedSearches.increment();
+	}
+
+	/**
+	 * Name: register
+	 * Description: Publishes the totals through JMX as ICS4U1:type=Engine,name=[name]
+	 * @param name - name of the engine
+	 * @throws JMException - if the name is invalid or already taken
+	 */
+	public void register(String name) throws JMException {
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("ICS4U1:type=Engine,name=" + name));
+	}
+
+	public long getSearches() {
+		return searches.sum();
+	}
+
+	public long getBookMoves() {
+		return bookMoves.sum();
+	}
+
+	public long getNodes() {
+		return nodes.sum();
+	}
+
+	public double getNodesPerSecond() {
+		long time = nanos.sum();
+		return time == 0 ? 0 : nodes.sum() * 1e9 / time;
+	}
+
+	public double getAverageDepth() {
+		long searched = searches.sum() - bookMoves.sum();
+		return searched == 0 ? 0 : (double) depths.sum() / searched;
+	}
+
+	public double getCutoffRate() {
+		long interior = interiorNodes.sum();
+		return interior == 0 ? 0 : (double) cutoffs.sum() / interior;
+	}
+
+	public double getFirstMoveCutoffRate() {
+		long total = cutoffs.sum();
+		return total == 0 ? 0 : (double) firstMoveCutoffs.sum() / total;
+	}
+
+	public long getLeafEvaluations() {
+		return leafEvaluations.sum();
+	}
+
+	public long getTerminalHits() {
+		return terminalHits.sum();
+	}
+
+	public long getFailedSearches() {
+		return failedSearches.sum();
+	}
+
+	public double getLastBranchingFactor() {
+		return lastBranchingFactor;
+	}
+}
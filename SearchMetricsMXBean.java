@@ -0,0 +1,34 @@
+package ICS4U1;
+
+/*
+Class: SearchMetricsMXBean.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Management interface of SearchMetrics, the running totals of every search made by an engine, as seen through JMX
+			 (for example in JConsole or VisualVM).
+ */
+
+public interface SearchMetricsMXBean {
+
+	long getSearches();
+
+	long getBookMoves();
+
+	long getNodes();
+
+	double getNodesPerSecond();
+
+	double getAverageDepth();
+
+	double getCutoffRate();
+
+	double getFirstMoveCutoffRate();
+
+	long getLeafEvaluations();
+
+	long getTerminalHits();
+
+	long getFailedSearches();
+
+	double getLastBranchingFactor();
+}
@@ -0,0 +1,47 @@
+package ICS4U1;
+
+/*
+Class: SearchResult.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: The move returned by Engine.bestMove(), along with its heuristic value and how the search got there.
+ */
+
+public class SearchResult {
+
+	final int column; 			// the best column
+	final int score; 			// heuristic value of the column (0 for book moves)
+	final int depth; 			// depth of the deepest finished iteration (0 for book moves)
+	final long nodes; 			// nodes visited by every search thread together
+	final long millis; 			// wall-clock time of the search
+	final boolean bookMove; 	// true if the move came from the opening book
+	final SearchStats stats; 	// statistics of the search, null for book moves or if the engine does not collect them
+
+	/**
+	 * Name: SearchResult
+	 * Description: Constructor for the SearchResult class
+	 * @param column - the best column
+	 * @param score - heuristic value of the column
+	 * @param depth - depth of the deepest finished iteration
+	 * @param nodes - nodes visited by every search thread together
+	 * @param millis - wall-clock time of the search
+	 * @param bookMove - true if the move came from the opening book
+	 * @param stats - statistics of the search, null if there are none
+	 */
+	public SearchResult(int column, int score, int depth, long nodes, long millis, boolean bookMove, SearchStats stats) {
+		this.column = column;
+		this.score = score;
+		this.depth = depth;
+		this.nodes = nodes;
+		this.millis = millis;
+		this.bookMove = bookMove;
+		this.stats = stats;
+	}
+
+	public String toString() {
+		if (bookMove) {
+			return "column " + (column + 1) + " (book)";
+		}
+		return "column " + (column + 1) + ", score " + score + ", depth " + depth + ", " + nodes + " nodes, " + millis + " ms";
+	}
+}
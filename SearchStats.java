@@ -0,0 +1,113 @@
+package ICS4U1;
+
+/*
+Class: SearchStats.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Statistics of one Engine.bestMove() call, returned with the move. The counts are those of the main search thread,
+			 except for the total number of nodes, which includes the helper threads. A high first-move cutoff rate means the move
+			 ordering puts the best move first most of the time, and a low effective branching factor means the pruning works well.
+ */
+
+public class SearchStats {
+
+	final int depth; 					// depth of the deepest finished iteration
+	final long nodes; 					// nodes visited by every search thread together
+	final long[] nodesPerDepth; 		// nodes of the main thread's iteration at every depth (index 0 is unused)
+	final long interiorNodes; 			// nodes whose moves were searched
+	final long cutoffs; 				// interior nodes that stopped early with a beta cutoff
+	final long firstMoveCutoffs; 		// cutoffs caused by the first move searched
+	final long tableCutoffs; 			// nodes answered by the transposition table
+	final long tablebaseHits; 			// nodes answered by the endgame tablebase
+	final long leafEvaluations; 		// calls to boardScore() at the base case
+	final long terminalHits; 			// base cases reached because the game was over before the depth ran out
+	final long evalCacheHits; 			// leaf evaluations found in the evaluation cache
+	final long nanos; 					// wall-clock time of the search
+
+	/**
+	 * Name: SearchStats
+	 * Description: Constructor for the SearchStats class
+	 * @param depth - depth of the deepest finished iteration
+	 * @param nodes - nodes visited by every search thread together
+	 * @param nodesPerDepth - nodes of the main thread's iteration at every depth
+	 * @param interiorNodes - nodes whose moves were searched
+	 * @param cutoffs - interior nodes that stopped early with a beta cutoff
+	 * @param firstMoveCutoffs - cutoffs caused by the first move searched
+	 * @param tableCutoffs - nodes answered by the transposition table
+	 * @param tablebaseHits - nodes answered by the endgame tablebase
+	 * @param leafEvaluations - calls to boardScore() at the base case
+	 * @param terminalHits - base cases reached because the game was over
+	 * @param evalCacheHits - leaf evaluations found in the evaluation cache
+	 * @param nanos - wall-clock time of the search
+	 */
+	public SearchStats(int depth, long nodes, long[] nodesPerDepth, long interiorNodes, long cutoffs, long firstMoveCutoffs,
+			long tableCutoffs, long tablebaseHits, long leafEvaluations, long terminalHits, long evalCacheHits, long nanos) {
+		this.depth = depth;
+		this.nodes = nodes;
+		this.nodesPerDepth = nodesPerDepth;
+		this.interiorNodes = interiorNodes;
+		this.cutoffs = cutoffs;
+		this.firstMoveCutoffs = firstMoveCutoffs;
+		this.tableCutoffs = tableCutoffs;
+		this.tablebaseHits = tablebaseHits;
+		this.leafEvaluations = leafEvaluations;
+		this.terminalHits = terminalHits;
+		this.evalCacheHits = evalCacheHits;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Name: cutoffRate
+	 * Description: Returns the share of interior nodes that stopped early with a beta cutoff
+	 * @return - double value between 0 and 1
+	 */
+	public double cutoffRate() {
+		return interiorNodes == 0 ? 0 : (double) cutoffs / interiorNodes;
+	}
+
+	/**
+	 * Name: firstMoveCutoffRate
+	 * Description: Returns the share of beta cutoffs that were caused by the first move searched (how good the move ordering is)
+	 * @return - double value between 0 and 1
+	 */
+	public double firstMoveCutoffRate() {
+		return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+	}
+
+	/**
+	 * Name: evalCacheHitRate
+	 * Description: Returns the share of leaf evaluations that were found in the evaluation cache
+	 * @return - double value between 0 and 1 (0 if the engine has no evaluation cache)
+	 */
+	public double evalCacheHitRate() {
+		return leafEvaluations == 0 ? 0 : (double) evalCacheHits / leafEvaluations;
+	}
+
+	/**
+	 * Name: branchingFactor
+	 * Description: Returns the effective branching factor, how many times more nodes the last iteration took than the one before it
+	 * @return - double value of the factor, 0 if fewer than two iterations finished
+	 */
+	public double branchingFactor() {
+		if (depth < 2 || nodesPerDepth[depth - 1] == 0) {
+			return 0;
+		}
+		return (double) nodesPerDepth[depth] / nodesPerDepth[depth - 1];
+	}
+
+	/**
+	 * Name: nodesPerSecond
+	 * Description: Returns the search speed of every thread together
+	 * @return - double value of the nodes per second
+	 */
+	public double nodesPerSecond() {
+		return nanos == 0 ? 0 : nodes * 1e9 / nanos;
+	}
+
+	public String toString() {
+		return String.format("depth %d, %d nodes, %.0f nodes/s, cutoffs %.1f%% (first move %.1f%%), table cutoffs %d, "
+				+ "tablebase hits %d, leaf evaluations %d (%.1f%% cached), terminal hits %d, branching factor %.2f", depth, nodes,
+				nodesPerSecond(), 100 * cutoffRate(), 100 * firstMoveCutoffRate(), tableCutoffs, tablebaseHits, leafEvaluations,
+				100 * evalCacheHitRate(), terminalHits, branchingFactor());
+	}
+}
@@ -0,0 +1,531 @@
+package ICS4U1;
+
+/*
+Class: Searcher.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: One search thread of the engine. Every searcher has its own copy of the board and its own move ordering tables, and
+			 shares only the transposition table with the other searchers. With more than one thread the engine runs Lazy SMP:
+			 the helper searchers search the same position at slightly different depths and fill the shared table, which lets the
+			 main searcher cut off whole subtrees that a helper has already finished.
+ */
+
+public class Searcher {
+
+	// move ordering tables, one row for every ply so that the search never allocates
+	static final int MAX_PLY = ConnectFourAI.ROW * ConnectFourAI.COL + 1;
+	static final int[] CENTER_ORDER = {3, 2, 4, 1, 5, 0, 6}; 	// columns closer to the center are usually better
+	static final int HISTORY_LIMIT = 1 << 24;
+	static final int ASPIRATION_WINDOW = 32; 	// half the width of the first root window around the expected score
+
+	// a won game scores WIN minus the number of pieces on the board when it ends (a lost game the negative), so faster wins score
+	// higher. The end of the game depends only on the position, not on the moves that led to it, so these scores can be stored in
+	// the transposition table like any other.
+	static final int WIN = Integer.MAX_VALUE - 2;
+	static final int DECIDED = WIN - Position.ROW * Position.COL; 		// every score at least this far from 0 is a won or lost game
+
+	final TranspositionTable table; 		// shared with the other searchers
+	final Position board; 					// this searcher's own copy of the board
+	Tablebase tablebase; 					// null if there is no endgame tablebase
+	EvalCache evalCache; 					// leaf evaluations shared with the other searchers, null if there is none
+	long nodes; 							// number of nodes visited by this searcher
+	long nodeLimit = Long.MAX_VALUE; 		// node budget of the current search
+	long deadline = Long.MAX_VALUE; 		// System.nanoTime() at which the current search has to stop
+	boolean stopped; 						// set once the budget runs out, the unfinished iteration is thrown away
+	volatile boolean abort; 				// set by another thread to stop this searcher
+	int rootMove; 							// best column found at the root of the last search() call
+	int completedDepth; 					// depth of the deepest iteration finished by the last iterate() call
+
+	// statistics of the last iterate() call, only counted if collectStats is set
+	boolean collectStats;
+	long[] nodesPerDepth = new long[MAX_PLY + 1]; 	// nodes of every finished iteration
+	long interiorNodes; 							// nodes whose moves were searched
+	long cutoffs; 									// interior nodes that stopped early with a beta cutoff
+	long firstMoveCutoffs; 							// cutoffs caused by the first move searched
+	long tableCutoffs; 								// nodes answered by the transposition table
+	long leafEvaluations; 							// calls to boardScore() at the base case
+	long terminalHits; 								// base cases reached because the game was over before the depth ran out
+	long tablebaseHits; 							// nodes answered by the endgame tablebase
+	long evalCacheHits; 							// leaf evaluations found in the evaluation cache
+	int[][] moveBuffer = new int[MAX_PLY][ConnectFourAI.COL]; 		// the ordered moves of every ply
+	int[][] moveScores = new int[MAX_PLY][ConnectFourAI.COL]; 		// the ordering score of every move in moveBuffer
+	int[][] killers = new int[MAX_PLY][2]; 							// the last two columns that caused a beta cutoff at every ply
+	int[][] history = new int[2][ConnectFourAI.COL * Position.H1]; 	// cutoff history for every piece and cell
+
+	/**
+	 * Name: Searcher
+	 * Description: Constructor for the Searcher class
+	 * @param table - the transposition table shared by every searcher
+	 * @param board - the board to be searched (copied)
+	 */
+	public Searcher(TranspositionTable table, Position board) {
+		this.table = table;
+		this.board = new Position(board);
+		for (int[] killer : killers) {
+			java.util.Arrays.fill(killer, -1);
+		}
+	}
+
+
+	/**
+	 * Name: search
+	 * Description: Searches the board to a fixed depth and returns the best column with its score
+	 * @param depth - The searching depth
+	 * @param alpha - Variable for alpha-beta pruning
+	 * @param beta - Variable for alpha-beta pruning
+	 * @param maximizingPlayer - Boolean value to indicate which player's turn it is (maximizing or minimizing player)
+	 * @return Pair - the best column (-1 if the board is a terminal node) and its heuristic value
+	 */
+	public ConnectFourAI.Pair search(int depth, int alpha, int beta, boolean maximizingPlayer) {
+		rootMove = -1;
+		int value = alphaBeta(depth, 0, alpha, beta, maximizingPlayer);
+		return new ConnectFourAI.Pair(rootMove, value);
+	}
+
+
+	/**
+	 * Name: iterate
+	 * Description: Iterative deepening. Searches at firstDepth, firstDepth + 1... up to maxDepth and returns the result of the deepest
+	 * 				iteration that finished before the budget ran out (or abort was set). Every iteration after the first one searches the
+	 * 				root with an aspiration window around the score of an earlier iteration.
+	 * @param firstDepth - the depth of the first iteration, the first iteration always finishes
+	 * @param maxDepth - the deepest iteration
+	 * @param deadline - System.nanoTime() at which the search has to stop
+	 * @param maxNodes - node budget of the search
+	 * @param maximizingPlayer - true if the AI is the one to move
+	 * @return Pair - the best column and its heuristic value
+	 */
+	public ConnectFourAI.Pair iterate(int firstDepth, int maxDepth, long deadline, long maxNodes, boolean maximizingPlayer) {
+		nodes = 0;
+		stopped = false;
+		ageHistory();
+		if (collectStats) {
+			java.util.Arrays.fill(nodesPerDepth, 0);
+			interiorNodes = cutoffs = firstMoveCutoffs = tableCutoffs = leafEvaluations = terminalHits = tablebaseHits = 0;
+			evalCacheHits = 0;
+		}
+
+		nodeLimit = Long.MAX_VALUE;
+		this.deadline = Long.MAX_VALUE;
+		ConnectFourAI.Pair best = search(firstDepth, Integer.MIN_VALUE, Integer.MAX_VALUE, maximizingPlayer);
+		completedDepth = firstDepth;
+		nodesPerDepth[firstDepth] = nodes;
+
+		// the score swings between odd and even depths (the side that moves last gets the better of the horizon), so the window of
+		// every iteration is centered on the score of the iteration two plies before it
+		int[] scores = new int[Math.max(firstDepth, maxDepth) + 1];
+		scores[firstDepth] = best.val;
+
+		nodeLimit = maxNodes;
+		this.deadline = deadline;
+		for (int depth = firstDepth + 1; depth <= maxDepth; depth++) {
+			if (isDecided(best.val)) {
+				break; 						// the game is already decided, searching deeper will not change anything
+			}
+			long nodesBefore = nodes;
+			int expected = depth - 2 >= firstDepth ? scores[depth - 2] : best.val;
+			ConnectFourAI.Pair result = aspirate(depth, expected, maximizingPlayer);
+			if (stopped) {
+				break; 						// ran out of time in the middle of this iteration
+			}
+			best = result;
+			scores[depth] = result.val;
+			completedDepth = depth;
+			nodesPerDepth[depth] = nodes - nodesBefore;
+		}
+		return best;
+	}
+
+
+	/**
+	 * Name: aspirate
+	 * Description: Searches the root with a narrow window around the expected score, which cuts off far more than the full window.
+	 * 				If the score falls outside the window, the side it fell out of is widened (four times further each time) and the
+	 * 				root is searched again, until the score is inside the window.
+	 * @param depth - The searching depth
+	 * @param expected - the score of an earlier iteration
+	 * @param maximizingPlayer - Boolean value to indicate which player's turn it is (maximizing or minimizing player)
+	 * @return Pair - the best column and its exact heuristic value (unless the search stopped)
+	 */
+	ConnectFourAI.Pair aspirate(int depth, int expected, boolean maximizingPlayer) {
+		long delta = ASPIRATION_WINDOW;
+		int alpha = (int) Math.max(Integer.MIN_VALUE, expected - delta);
+		int beta = (int) Math.min(Integer.MAX_VALUE, expected + delta);
+		while (true) {
+			ConnectFourAI.Pair result = search(depth, alpha, beta, maximizingPlayer);
+			if (stopped) {
+				return result;
+			}
+			delta *= 4;
+			if (result.val <= alpha && alpha > Integer.MIN_VALUE) {
+				alpha = (int) Math.max(Integer.MIN_VALUE, result.val - delta); 		// failed low
+			}
+			else if (result.val >= beta && beta < Integer.MAX_VALUE) {
+				beta = (int) Math.min(Integer.MAX_VALUE, result.val + delta); 		// failed high
+			}
+			else {
+				return result;
+			}
+		}
+	}
+
+
+	/**
+	 * Name: alphaBeta
+	 * Description: The recursive alpha-beta search on this searcher's board. Returns only the score, the best column of the root is
+	 * 				saved into rootMove, so that no objects are created while searching.
+	 * @param depth - The current searching depth of the AI
+	 * @param ply - number of moves made since the root of the search (index into the move ordering tables)
+	 * @param alpha - Variable for alpha-beta pruning
+	 * @param beta - Variable for alpha-beta pruning
+	 * @param maximizingPlayer - Boolean value to indicate which player's turn it is (maximizing or minimizing player)
+	 * @return - int value of the best heuristic value of the board
+	 */
+	int alphaBeta(int depth, int ply, int alpha, int beta, boolean maximizingPlayer) {
+
+		// check the budget (and whether another thread asked this one to stop) every 1024 nodes
+		if ((++nodes & 1023) == 0 && (nodes >= nodeLimit || abort || System.nanoTime() >= deadline)) {
+			stopped = true;
+		}
+		if (stopped) {
+			return 0; 				// the result of the unfinished iteration is thrown away
+		}
+
+		// late in the game the exact result may be in the endgame tablebase, which also takes the place of the heuristic at the leaves
+		int piece = maximizingPlayer ? ConnectFourAI.AI_PIECE : ConnectFourAI.PLAYER_PIECE;
+		if (tablebase != null && ply > 0 && board.moves >= tablebase.minMoves) {
+			int exact = tablebase.probe(board, piece);
+			if (exact != Tablebase.MISSING) {
+				if (collectStats) {
+					tablebaseHits++;
+				}
+				return tablebaseScore(exact, board.moves, maximizingPlayer);
+			}
+		}
+
+		// base cases
+		if (depth == 0 || ConnectFourAI.isTerminalNode(board)) {
+			if (collectStats) {
+				leafEvaluations++;
+				if (depth > 0) {
+					terminalHits++;
+				}
+			}
+			return evaluate();
+		}
+
+		// if the side to move can complete four in a line, that is the best score the board can have, no need to search
+		long mask = board.mask();
+		long possible = Position.possible(mask);
+		long wins = Position.winningCells(board.pieces[piece], mask) & possible;
+		if (wins != 0) {
+			if (ply == 0) {
+				rootMove = Long.numberOfTrailingZeros(wins) / Position.H1;
+			}
+			return decidedScore(board.moves + 1, maximizingPlayer);
+		}
+
+		// with two plies or more left, a move that lets the opponent win right away scores as a loss, so those moves are dropped:
+		// an opponent threat that can be completed next move has to be blocked, and no piece may go right below an opponent threat
+		long allowed = possible;
+		if (depth >= 2) {
+			long threats = Position.winningCells(board.pieces[1 - piece], mask);
+			long forced = possible & threats;
+			if (forced != 0) {
+				allowed = (forced & (forced - 1)) == 0 ? forced : 0; 	// two threats at once cannot both be blocked
+			}
+			allowed &= ~(threats >>> 1);
+			if (allowed == 0) {
+				if (ply == 0) {
+					rootMove = Long.numberOfTrailingZeros(forced != 0 ? forced : possible) / Position.H1;
+				}
+				return decidedScore(board.moves + 2, !maximizingPlayer); 	// every move loses, the opponent wins with its next move
+			}
+		}
+
+		// transposition table lookup, the stored result can be used if it was searched at least as deep. The root is always searched
+		// (its entry only orders the moves): an entry stored by a helper thread would otherwise pick the root move for this searcher
+		long key = board.searchKey();
+		long entry = table.probe(key);
+		if (ply > 0 && entry != 0 && TranspositionTable.depth(entry) >= depth) {
+			int score = TranspositionTable.score(entry);
+			int bound = TranspositionTable.bound(entry);
+			if (bound == TranspositionTable.LOWER) {
+				alpha = Math.max(alpha, score);
+			} 
+			else if (bound == TranspositionTable.UPPER) {
+				beta = Math.min(beta, score);
+			}
+			if (bound == TranspositionTable.EXACT || alpha >= beta) {
+				if (collectStats) {
+					tableCutoffs++;
+				}
+				return score;
+			}
+		}
+		int alphaStart = alpha; 		// the window that this node is searched with, used to tell which bound the result is
+		int betaStart = beta;
+
+		// getting all the available nodes that were not dropped, best first
+		int[] moves = moveBuffer[ply];
+		int count = orderMoves(ply, entry != 0 ? TranspositionTable.move(entry) : -1, piece, allowed, moves);
+		int bestMove = -1;
+		if (collectStats) {
+			interiorNodes++;
+		}
+
+		//is true, maximizing player's turn, (the AI)
+		if (maximizingPlayer) {
+			int value = Integer.MIN_VALUE;
+
+			for (int i = 0; i < count; i++) { 			// loop through every available node
+				int child = moves[i];
+
+				// recursively get all the possible values and return the highest possible value
+				board.play(child, ConnectFourAI.AI_PIECE); 								// drop ai piece into the board
+				int nodeValue;
+				if (i == 0) {
+					nodeValue = alphaBeta(depth - 1, ply + 1, alpha, beta, false); 	// minimizing player next turn
+				}
+				else {
+					// principal variation search: a null window only proves whether the move beats alpha, which is cheaper than
+					// finding its exact value, and only a move that does beat it is searched again with the full window
+					nodeValue = alphaBeta(depth - 1, ply + 1, alpha, alpha + 1, false);
+					if (nodeValue > alpha && nodeValue < beta && !stopped) {
+						nodeValue = alphaBeta(depth - 1, ply + 1, alpha, beta, false);
+					}
+				}
+				board.undo(child); 														// take the piece back out before trying the next node
+				if (stopped) {
+					return value; 						// unfinished result, must not be saved into the table
+				}
+				if (nodeValue > value) {
+					value = nodeValue;
+					bestMove = child;
+				}
+				// alpha beta pruning (can be found on google)
+				alpha = Math.max(value, alpha);
+				if (alpha >= beta) {
+					recordCutoff(ply, depth, child, piece, i == 0);
+					break;
+				}
+			}
+			table.store(key, depth, TranspositionTable.boundOf(value, alphaStart, betaStart), value, bestMove);
+			if (ply == 0) {
+				rootMove = bestMove;
+			}
+			return value;
+		}
+		// is false, minimizing player's turn, pretending to be the player
+		else {
+			int value = Integer.MAX_VALUE;
+
+			for (int i = 0; i < count; i++) { 			// loop through every available node
+				int child = moves[i];
+
+				// recursively get all the possible values and return the lowest possible value
+				board.play(child, ConnectFourAI.PLAYER_PIECE); 							// drop player piece into the board
+				int nodeValue;
+				if (i == 0) {
+					nodeValue = alphaBeta(depth - 1, ply + 1, alpha, beta, true); 	// maximizing player next turn
+				}
+				else {
+					// null window just below beta, only a move that is lower than beta is searched again with the full window
+					nodeValue = alphaBeta(depth - 1, ply + 1, beta - 1, beta, true);
+					if (nodeValue < beta && nodeValue > alpha && !stopped) {
+						nodeValue = alphaBeta(depth - 1, ply + 1, alpha, beta, true);
+					}
+				}
+				board.undo(child); 														// take the piece back out before trying the next node
+				if (stopped) {
+					return value;
+				}
+				if (nodeValue < value) {
+					value = nodeValue;
+					bestMove = child;
+				}
+				// alpha beta pruning (can be found on google)
+				beta = Math.min(value, beta);
+				if (alpha >= beta) {
+					recordCutoff(ply, depth, child, piece, i == 0);
+					break;
+				}
+			}
+			table.store(key, depth, TranspositionTable.boundOf(value, alphaStart, betaStart), value, bestMove);
+			if (ply == 0) {
+				rootMove = bestMove;
+			}
+			return value;
+		}
+	}
+
+
+	/**
+	 * Name: evaluate
+	 * Description: Returns the heuristic score of this searcher's board, through the evaluation cache if there is one
+	 * @return - int value of the heuristic score of the board
+	 */
+	int evaluate() {
+		int score;
+		if (evalCache == null) {
+			score = ConnectFourAI.boardScore(board);
+		}
+		else {
+			long key = board.searchKey();
+			long entry = evalCache.probe(key);
+			if (entry != 0) {
+				if (collectStats) {
+					evalCacheHits++;
+				}
+				score = EvalCache.score(entry);
+			}
+			else {
+				score = ConnectFourAI.boardScore(board);
+				evalCache.store(key, score);
+			}
+		}
+		if (score == Integer.MAX_VALUE - 1 || score == Integer.MIN_VALUE + 1) {
+			return decidedScore(board.moves, score > 0); 		// four in a line, the game ended with the last move
+		}
+		return score;
+	}
+
+
+	/**
+	 * Name: stats
+	 * Description: Collects the statistics of the last iterate() call (collectStats must have been set)
+	 * @param totalNodes - nodes searched by every thread together
+	 * @param nanos - wall-clock time of the search
+	 * @return - the statistics
+	 */
+	SearchStats stats(long totalNodes, long nanos) {
+		return new SearchStats(completedDepth, totalNodes, java.util.Arrays.copyOf(nodesPerDepth, completedDepth + 1), interiorNodes,
+				cutoffs, firstMoveCutoffs, tableCutoffs, tablebaseHits, leafEvaluations, terminalHits, evalCacheHits, nanos);
+	}
+
+
+	/**
+	 * Name: tablebaseScore
+	 * Description: Turns a tablebase score into a search score, on the same scale as every other won or lost game
+	 * @param exact - the tablebase score from the point of view of the side to move (a win with the side's k-th last piece scores k)
+	 * @param moves - number of pieces on the board
+	 * @param maximizingPlayer - Boolean value to indicate which player's turn it is (maximizing or minimizing player)
+	 * @return - int value of the score
+	 */
+	static int tablebaseScore(int exact, int moves, boolean maximizingPlayer) {
+		if (exact == 0) {
+			return 0; 		// a draw
+		}
+		boolean winnerMovedFirst = (moves % 2 == 0) == (exact > 0);
+		int end = Solver.CELLS + 1 - 2 * Math.abs(exact) + (winnerMovedFirst ? 0 : 1); 	// pieces on the board after the winning move
+		return decidedScore(end, (exact > 0) == maximizingPlayer);
+	}
+
+	/**
+	 * Name: decidedScore
+	 * Description: Returns the score of a won or lost game
+	 * @param end - number of pieces on the board after the winning move
+	 * @param aiWins - true if the AI (the maximizing player) wins
+	 * @return - int value of the score
+	 */
+	static int decidedScore(int end, boolean aiWins) {
+		return aiWins ? WIN - end : end - WIN;
+	}
+
+	/**
+	 * Name: isDecided
+	 * Description: Checks whether a score is the score of a won or lost game
+	 * @param score - the score
+	 * @return - true if the game is won or lost
+	 */
+	static boolean isDecided(int score) {
+		return score >= DECIDED || score <= -DECIDED;
+	}
+
+
+	/**
+	 * Name: orderMoves
+	 * Description: Fills the move array of this ply with every allowed column, best first: the transposition table move, then the
+	 * 				two killer moves of the ply, then the rest by their history score. Ties keep the center-first order of CENTER_ORDER.
+	 * @param ply - number of moves made since the root of the search
+	 * @param hashMove - best column stored in the transposition table, -1 if there is none
+	 * @param piece - the piece of the side to move
+	 * @param allowed - bitboard of the cells that may be played
+	 * @param moves - the array to be filled
+	 * @return - int value of the number of allowed columns
+	 */
+	int orderMoves(int ply, int hashMove, int piece, long allowed, int[] moves) {
+		int[] scores = moveScores[ply];
+		int count = 0;
+		for (int col : CENTER_ORDER) {
+			if ((allowed & Position.columnMask(col)) == 0) {
+				continue;
+			}
+			int score;
+			if (col == hashMove) {
+				score = Integer.MAX_VALUE;
+			} 
+			else if (col == killers[ply][0]) {
+				score = Integer.MAX_VALUE - 1;
+			} 
+			else if (col == killers[ply][1]) {
+				score = Integer.MAX_VALUE - 2;
+			} 
+			else {
+				score = history[piece][board.height[col]];
+			}
+
+			// insertion sort, the array never has more than 7 moves
+			int i = count++;
+			while (i > 0 && scores[i - 1] < score) {
+				moves[i] = moves[i - 1];
+				scores[i] = scores[i - 1];
+				i--;
+			}
+			moves[i] = col;
+			scores[i] = score;
+		}
+		return count;
+	}
+
+
+	/**
+	 * Name: recordCutoff
+	 * Description: Remembers a move that caused a beta cutoff as a killer move of its ply and adds to its history score
+	 * @param ply - number of moves made since the root of the search
+	 * @param depth - the searching depth left at this node, deeper cutoffs count for more
+	 * @param col - the column of the move
+	 * @param piece - the piece of the side that made the move
+	 * @param firstMove - true if the move was the first one searched at the node
+	 */
+	void recordCutoff(int ply, int depth, int col, int piece, boolean firstMove) {
+		if (collectStats) {
+			cutoffs++;
+			if (firstMove) {
+				firstMoveCutoffs++;
+			}
+		}
+		if (killers[ply][0] != col) {
+			killers[ply][1] = killers[ply][0];
+			killers[ply][0] = col;
+		}
+		int[] scores = history[piece];
+		scores[board.height[col]] += depth * depth;
+		if (scores[board.height[col]] > HISTORY_LIMIT) {
+			ageHistory(); 		// keeps the scores from overflowing
+		}
+	}
+
+
+	/**
+	 * Name: ageHistory
+	 * Description: Halves every history score, so that older searches count for less than the current one
+	 */
+	void ageHistory() {
+		for (int[] scores : history) {
+			for (int i = 0; i < scores.length; i++) {
+				scores[i] /= 2;
+			}
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package ICS4U1;
+
+import java.io.*;
+
+/*
+Class: Solver.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Exact solver for the 6x7 board. Instead of the boardScore() heuristic, it proves the game-theoretic value of a position with
+			 negamax and alpha-beta pruning, using null-window searches to close in on the exact score. The score is positive if the side
+			 to move wins whatever the other side does, negative if it loses, and 0 for a draw, and the faster the win the higher the
+			 score: a win with the side's k-th last piece scores k (so the first player winning with its very last piece scores 1).
+			 Usage: java ICS4U1.Solver, then one move sequence (columns 1-7) per line on standard input
+ */
+
+public class Solver {
+
+	static final int CELLS = Position.ROW * Position.COL;
+	static final int MIN_SCORE = -CELLS / 2 + 3; 		// lowest possible score (losing as late as possible)
+	static final int MAX_SCORE = (CELLS + 1) / 2 - 3; 	// highest possible score (winning as early as possible)
+	static final int TT_SIZE_MB = 64;
+
+	// transposition table of bounds, the stored value is the score moved into a positive range
+	// (upper bounds in 1..MAX_SCORE - MIN_SCORE + 1, lower bounds above that)
+	private final long[] keys;
+	private final byte[] values;
+	private final int indexMask;
+
+	// move ordering buffers, one row per number of pieces on the board
+	private final long[][] sortMoves = new long[CELLS + 1][Position.COL];
+	private final int[][] sortScores = new int[CELLS + 1][Position.COL];
+
+	long nodes; 			// positions visited by the last solve() call
+
+	/**
+	 * Name: Solver
+	 * Description: Constructor for the Solver class with the default table size
+	 */
+	public Solver() {
+		this(TT_SIZE_MB);
+	}
+
+	/**
+	 * Name: Solver
+	 * Description: Constructor for the Solver class
+	 * @param megabytes - memory budget of the transposition table
+	 */
+	public Solver(int megabytes) {
+		int size = (int) Long.highestOneBit(Math.max(1, ((long) megabytes << 20) / 9));
+		keys = new long[size];
+		values = new byte[size];
+		indexMask = size - 1;
+	}
+
+	/**
+	 * Name: solve
+	 * Description: Calculates the exact score of a position
+	 * @param board - bitboard of the current board
+	 * @param piece - the piece of the side to move
+	 * @return - int value of the score, from the point of view of the side to move
+	 * @throws IllegalArgumentException - if one of the sides has already won
+	 */
+	public int solve(Position board, int piece) {
+		if (ConnectFourAI.winBoard(board, ConnectFourAI.AI_PIECE) || ConnectFourAI.winBoard(board, ConnectFourAI.PLAYER_PIECE)) {
+			throw new IllegalArgumentException("The game is already over");
+		}
+		nodes = 0;
+		long current = board.pieces[piece];
+		long mask = board.mask();
+		int moves = board.moves;
+		if (moves == CELLS) {
+			return 0;
+		}
+		if ((Position.winningCells(current, mask) & Position.possible(mask)) != 0) {
+			return (CELLS + 1 - moves) / 2; 		// wins right away
+		}
+
+		// narrow the window around the score with null-window searches
+		int min = -(CELLS - moves) / 2;
+		int max = (CELLS + 1 - moves) / 2;
+		while (min < max) {
+			int med = min + (max - min) / 2;
+			if (med <= 0 && min / 2 < med) {
+				med = min / 2; 			// look closer to 0 first, most positions are close games
+			}
+			else if (med >= 0 && max / 2 > med) {
+				med = max / 2;
+			}
+			int score = negamax(current, mask, moves, med, med + 1);
+			if (score <= med) {
+				max = score;
+			}
+			else {
+				min = score;
+			}
+		}
+		return min;
+	}
+
+	/**
+	 * Name: pliesToEnd
+	 * Description: Converts a score into the number of moves (of both sides) left until the game ends with perfect play
+	 * @param score - the score returned by solve()
+	 * @param moves - the number of pieces on the board
+	 * @return - int value of the number of moves, including the winning move
+	 */
+	public static int pliesToEnd(int score, int moves) {
+		if (score == 0) {
+			return CELLS - moves; 			// a draw fills the board
+		}
+		int last = CELLS + 1 - 2 * Math.abs(score); 	// pieces on the board before the winning move
+		if ((last - moves) % 2 != (score > 0 ? 0 : 1)) {
+			last--; 						// the winner is the side to move if the score is positive
+		}
+		return last - moves + 1;
+	}
+
+	/**
+	 * Name: negamax
+	 * Description: Alpha-beta search of the score from the point of view of the side to move
+	 * @param current - bitboard of the pieces of the side to move
+	 * @param mask - bitboard of every piece on the board
+	 * @param moves - the number of pieces on the board
+	 * @param alpha - Variable for alpha-beta pruning
+	 * @param beta - Variable for alpha-beta pruning
+	 * @return - int value of the score (exact if it is between alpha and beta, otherwise a bound)
+	 */
+	private int negamax(long current, long mask, int moves, int alpha, int beta) {
+		nodes++;
+
+		// the opponent's threats that we could play right away must be blocked, and we must not play right below any other threat
+		long possible = Position.possible(mask);
+		long opponentWins = Position.winningCells(current ^ mask, mask);
+		long forced = possible & opponentWins;
+		if (forced != 0) {
+			if ((forced & (forced - 1)) != 0) {
+				return -(CELLS - moves) / 2; 		// two threats at once, the opponent wins next move
+			}
+			possible = forced;
+		}
+		possible &= ~(opponentWins >>> 1);
+		if (possible == 0) {
+			return -(CELLS - moves) / 2; 			// every move lets the opponent win
+		}
+		if (moves >= CELLS - 2) {
+			return 0; 								// neither side can win any more
+		}
+
+		// bounds from the number of moves left
+		int min = -(CELLS - 2 - moves) / 2;
+		if (alpha < min) {
+			alpha = min;
+			if (alpha >= beta) {
+				return alpha;
+			}
+		}
+		int max = (CELLS - 1 - moves) / 2;
+		if (beta > max) {
+			beta = max;
+			if (alpha >= beta) {
+				return beta;
+			}
+		}
+
+		// bounds from the transposition table
+		long key = current + mask;
+		int index = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & indexMask;
+		if (keys[index] == key) {
+			int value = values[index];
+			if (value > MAX_SCORE - MIN_SCORE + 1) {
+				min = value + 2 * MIN_SCORE - MAX_SCORE - 2;
+				if (alpha < min) {
+					alpha = min;
+					if (alpha >= beta) {
+						return alpha;
+					}
+				}
+			}
+			else {
+				max = value + MIN_SCORE - 1;
+				if (beta > max) {
+					beta = max;
+					if (alpha >= beta) {
+						return beta;
+					}
+				}
+			}
+		}
+
+		// order the moves by how many threats they make, center columns first on ties
+		long[] moveList = sortMoves[moves];
+		int[] scoreList = sortScores[moves];
+		int count = 0;
+		for (int col : Searcher.CENTER_ORDER) {
+			long move = possible & Position.columnMask(col);
+			if (move == 0) {
+				continue;
+			}
+			int score = Long.bitCount(Position.winningCells(current | move, mask | move));
+			int i = count++;
+			while (i > 0 && scoreList[i - 1] < score) {
+				moveList[i] = moveList[i - 1];
+				scoreList[i] = scoreList[i - 1];
+				i--;
+			}
+			moveList[i] = move;
+			scoreList[i] = score;
+		}
+
+		for (int i = 0; i < count; i++) {
+			long move = moveList[i];
+			int score = -negamax(current ^ mask, mask | move, moves + 1, -beta, -alpha); 	// the opponent's turn next
+			if (score >= beta) {
+				keys[index] = key;
+				values[index] = (byte) (score + MAX_SCORE - 2 * MIN_SCORE + 2); 		// lower bound
+				return score;
+			}
+			if (score > alpha) {
+				alpha = score;
+			}
+		}
+		keys[index] = key;
+		values[index] = (byte) (alpha - MIN_SCORE + 1); 								// upper bound
+		return alpha;
+	}
+
+	public static void main(String[] args) throws IOException {
+		Solver solver = new Solver();
+		BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+		String line;
+		while ((line = in.readLine()) != null) {
+			line = line.trim();
+			try {
+				Position board = Position.fromMoves(line, ConnectFourAI.AI_PIECE);
+				int piece = board.moves % 2 == 0 ? ConnectFourAI.AI_PIECE : ConnectFourAI.PLAYER_PIECE;
+				long start = System.nanoTime();
+				int score = solver.solve(board, piece);
+				long micros = (System.nanoTime() - start) / 1000;
+				String result = score > 0 ? "win" : score < 0 ? "loss" : "draw";
+				System.out.println(line + " " + score + " " + result + " in " + pliesToEnd(score, board.moves) + " " + solver.nodes + " "
+						+ micros);
+			} catch (IllegalArgumentException e) {
+				System.out.println(line + " invalid: " + e.getMessage());
+			}
+		}
+	}
+}
@@ -0,0 +1,227 @@
+package ICS4U1;
+
+import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/*
+Class: Tablebase.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Endgame tablebase made by TablebaseGenerator, read straight from a memory-mapped file. It holds the exact score of late-game
+			 positions (the same score as Solver: positive if the side to move wins, higher for faster wins, 0 for a draw), so the search
+			 can look them up instead of searching them. The positions are found with a perfect hash (hash and displace): every position
+			 is sent to a bucket, and every bucket stores the displacement that sends each of its positions to its own slot, so a lookup
+			 reads one int and one long. Every slot holds the key of its position and the score, so positions that are not in the file
+			 are told apart. Since the file is mapped instead of read, only the pages the search touches are ever loaded.
+			 File layout: a 24-byte header (magic number, version, empty cells, positions, buckets, slots), one int displacement per
+			 bucket, then one long per slot (the key shifted left by 8 bits, with the score in the low 8 bits, 0 if the slot is empty).
+ */
+
+public class Tablebase {
+
+	static final int MAGIC = 0x43345442; 	// "C4TB"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 24;
+	static final int MISSING = Integer.MIN_VALUE; 		// probe() result for a position that is not in the tablebase
+	static final long DISPLACE = 0x9E3779B97F4A7C15L; 	// multiplied by the displacement of a bucket
+
+	private final MappedByteBuffer buffer;
+	final int empties; 				// positions with more empty cells than this are never in the tablebase
+	final int minMoves; 			// the same limit as a number of pieces on the board
+	private final int positions;
+	private final int buckets;
+	private final int slots;
+	private final int slotStart; 	// byte offset of the first slot
+
+	/**
+	 * Name: Tablebase
+	 * Description: Constructor for the Tablebase class
+	 * @param buffer - the mapped tablebase file
+	 * @throws IOException - if the file is not a tablebase
+	 */
+	private Tablebase(MappedByteBuffer buffer) throws IOException {
+		if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IOException("Not a tablebase file");
+		}
+		this.buffer = buffer;
+		empties = buffer.getInt(8);
+		minMoves = Position.ROW * Position.COL - empties;
+		positions = buffer.getInt(12);
+		buckets = buffer.getInt(16);
+		slots = buffer.getInt(20);
+		slotStart = HEADER_BYTES + 4 * buckets;
+		if (buffer.capacity() != HEADER_BYTES + 4L * buckets + 8L * slots) {
+			throw new IOException("Tablebase file is truncated");
+		}
+	}
+
+	/**
+	 * Name: open
+	 * Description: Maps a tablebase file into memory
+	 * @param file - path of the tablebase file
+	 * @return - the tablebase
+	 * @throws IOException - if the file cannot be read or is not a tablebase
+	 */
+	public static Tablebase open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return new Tablebase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())); 	// the mapping stays valid after closing
+		}
+	}
+
+	/**
+	 * Name: probe
+	 * Description: Looks up the exact score of a position
+	 * @param board - bitboard of the current board
+	 * @param piece - the piece of the side to move
+	 * @return - int value of the score from the point of view of the side to move, MISSING if the position is not in the tablebase
+	 */
+	public int probe(Position board, int piece) {
+		if (board.moves < minMoves) {
+			return MISSING;
+		}
+		long key = canonicalKey(board.pieces[piece], board.mask());
+		int displacement = buffer.getInt(HEADER_BYTES + 4 * bucket(key, buckets));
+		long entry = buffer.getLong(slotStart + 8 * slot(key, displacement, slots));
+		if (entry >>> 8 != key) {
+			return MISSING;
+		}
+		return (byte) entry;
+	}
+
+	/**
+	 * Name: size
+	 * Description: Returns the number of positions in the tablebase
+	 * @return - int value of the number of positions
+	 */
+	public int size() {
+		return positions;
+	}
+
+	/**
+	 * Name: canonicalKey
+	 * Description: Returns the key of a position as stored in the tablebase: the pieces of the side to move plus one extra bit on top of
+	 * 				every column (the same for whoever went first), using the smaller key of the position and its mirror image
+	 * @param current - bitboard of the pieces of the side to move
+	 * @param mask - bitboard of every piece on the board
+	 * @return - long value of the key
+	 */
+	static long canonicalKey(long current, long mask) {
+		long key = current + mask + Position.BOTTOM;
+		return Math.min(key, Position.mirrorKey(key));
+	}
+
+	/**
+	 * Name: bucket
+	 * Description: Returns the bucket of a key
+	 * @param key - the key of a position
+	 * @param buckets - number of buckets
+	 * @return - int value of the bucket
+	 */
+	static int bucket(long key, int buckets) {
+		return (int) Long.remainderUnsigned(mix(key), buckets);
+	}
+
+	/**
+	 * Name: slot
+	 * Description: Returns the slot of a key for a given displacement of its bucket
+	 * @param key - the key of a position
+	 * @param displacement - the displacement of the key's bucket
+	 * @param slots - number of slots
+	 * @return - int value of the slot
+	 */
+	static int slot(long key, int displacement, int slots) {
+		return (int) Long.remainderUnsigned(mix(key + (displacement + 1L) * DISPLACE), slots);
+	}
+
+	/**
+	 * Name: mix
+	 * Description: Scrambles the bits of a key (the finalizer of MurmurHash3), so that similar positions land far apart
+	 * @param z - the value to scramble
+	 * @return - long value of the scrambled bits
+	 */
+	static long mix(long z) {
+		z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+		z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+		return z ^ (z >>> 33);
+	}
+
+	/**
+	 * Name: write
+	 * Description: Builds the perfect hash of the positions and writes the tablebase file. The buckets are placed biggest first, each
+	 * 				one trying displacements 0, 1, 2... until every one of its positions lands on a free slot.
+	 * @param file - path of the tablebase file
+	 * @param empties - the most empty cells of any position
+	 * @param keys - the canonical keys of the positions
+	 * @param scores - the score of every position
+	 * @throws IOException - if the file cannot be written
+	 */
+	static void write(Path file, int empties, long[] keys, byte[] scores) throws IOException {
+		int count = keys.length;
+		int buckets = Math.max(1, count / 4);
+		int slots = Math.max(1, count + count / 4);
+
+		// group the positions by bucket (counting sort)
+		int[] start = new int[buckets + 1];
+		for (long key : keys) {
+			start[bucket(key, buckets) + 1]++;
+		}
+		for (int b = 0; b < buckets; b++) {
+			start[b + 1] += start[b];
+		}
+		int[] members = new int[count];
+		int[] fill = start.clone();
+		for (int i = 0; i < count; i++) {
+			members[fill[bucket(keys[i], buckets)]++] = i;
+		}
+
+		// biggest buckets first, while most slots are still free
+		Integer[] order = new Integer[buckets];
+		for (int b = 0; b < buckets; b++) {
+			order[b] = b;
+		}
+		java.util.Arrays.sort(order, (a, b) -> (start[b + 1] - start[b]) - (start[a + 1] - start[a]));
+
+		int[] displacements = new int[buckets];
+		long[] table = new long[slots];
+		int[] taken = new int[buckets == 0 ? 0 : start[order[0] + 1] - start[order[0]]]; 	// slots of the bucket being placed, the biggest first
+		for (int b : order) {
+			int size = start[b + 1] - start[b];
+			for (int d = 0; size > 0; d++) {
+				boolean fits = true;
+				for (int j = 0; j < size && fits; j++) {
+					int s = slot(keys[members[start[b] + j]], d, slots);
+					fits = table[s] == 0;
+					for (int k = 0; k < j && fits; k++) {
+						fits = taken[k] != s;
+					}
+					taken[j] = s;
+				}
+				if (fits) {
+					displacements[b] = d;
+					for (int j = 0; j < size; j++) {
+						int i = members[start[b] + j];
+						table[taken[j]] = (keys[i] << 8) | (scores[i] & 0xFF);
+					}
+					break;
+				}
+			}
+		}
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(empties);
+			out.writeInt(count);
+			out.writeInt(buckets);
+			out.writeInt(slots);
+			for (int d : displacements) {
+				out.writeInt(d);
+			}
+			for (long entry : table) {
+				out.writeLong(entry);
+			}
+		}
+	}
+}
@@ -0,0 +1,264 @@
+package ICS4U1;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Random;
+
+/*
+Class: TablebaseGenerator.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Builds the endgame tablebase. Every position with at most the given number of empty cells has far too many relatives to
+			 all be stored, so the tablebase covers the endings of real games instead: the engine plays games against itself (with a
+			 few random opening moves so that the games are different), the position of every game at the empty cell limit is taken
+			 as a root, and every position that can be reached from a root is collected. The positions are then solved by retrograde
+			 analysis: starting from the fullest boards and working back towards the roots, the score of every position comes from the
+			 scores of its children, which have already been solved. Positions that are mirror images of each other are stored once.
+			 Usage: java ICS4U1.TablebaseGenerator [tablebase file] [empty cells] [games] [random seed]
+ */
+
+public class TablebaseGenerator {
+
+	static final int CELLS = Position.ROW * Position.COL;
+	static final int RANDOM_PLIES = 6; 		// random opening moves of every self-play game
+	static final int GAME_DEPTH = 6; 		// search depth of the self-play games
+
+	public static void main(String[] args) throws IOException {
+		Path file = Paths.get(args.length > 0 ? args[0] : ConnectFourAI.TABLEBASE_FILE);
+		int empties = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+		int games = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+		Random random = new Random(args.length > 3 ? Long.parseLong(args[3]) : 1);
+
+		// collect every position reachable from the roots
+		LongByteMap scores = new LongByteMap();
+		Level[] levels = new Level[CELLS];
+		for (int moves = CELLS - empties; moves < CELLS; moves++) {
+			levels[moves] = new Level();
+		}
+		Engine engine = new Engine(8, 1, null, null, false);
+		int roots = 0;
+		for (int attempt = 0; roots < games && attempt < games * 20; attempt++) {
+			Position root = selfPlay(engine, random, CELLS - empties);
+			if (root != null) {
+				int piece = root.sideToMove();
+				collect(root.pieces[piece], root.mask(), root.moves, scores, levels);
+				roots++;
+			}
+		}
+		System.out.println(roots + " roots, " + scores.size() + " positions to solve");
+
+		// retrograde analysis, the children of every position are one level further on
+		for (int moves = CELLS - 1; moves >= CELLS - empties; moves--) {
+			Level level = levels[moves];
+			for (int i = 0; i < level.size; i++) {
+				long current = level.current[i];
+				long mask = level.mask[i];
+				scores.put(Tablebase.canonicalKey(current, mask), (byte) solve(current, mask, moves, scores));
+			}
+			levels[moves] = null; 			// no longer needed
+			System.out.println(CELLS - moves + " empty cells: " + level.size + " positions");
+		}
+
+		// write the positions with their perfect hash
+		long[] keys = new long[scores.size()];
+		byte[] values = new byte[keys.length];
+		int count = 0;
+		for (int slot = 0; slot < scores.keys.length; slot++) {
+			if (scores.keys[slot] != 0) {
+				keys[count] = scores.keys[slot];
+				values[count++] = scores.values[slot];
+			}
+		}
+		Tablebase.write(file, empties, keys, values);
+		System.out.println("Wrote " + keys.length + " positions to " + file);
+	}
+
+	/**
+	 * Name: selfPlay
+	 * Description: Plays a game of the engine against itself, starting with a few random moves, until the board has the given number of
+	 * 				pieces
+	 * @param engine - the engine that plays both sides
+	 * @param random - random number generator for the opening moves
+	 * @param pieces - the number of pieces on the board of the root
+	 * @return - the root, null if the game ended before reaching it
+	 */
+	static Position selfPlay(Engine engine, Random random, int pieces) {
+		Position board = new Position(random.nextInt(2));
+		while (board.moves < pieces) {
+			if (ConnectFourAI.isTerminalNode(board)) {
+				return null;
+			}
+			int col;
+			if (board.moves < RANDOM_PLIES) {
+				do {
+					col = random.nextInt(Position.COL);
+				} while (!board.canPlay(col));
+			}
+			else {
+				col = engine.bestMove(board, SearchLimits.depth(GAME_DEPTH)).column;
+			}
+			board.play(col, board.sideToMove());
+		}
+		return ConnectFourAI.isTerminalNode(board) ? null : board;
+	}
+
+	/**
+	 * Name: collect
+	 * Description: Walks every move sequence from a position and saves every position that has not been seen before. A position where
+	 * 				the side to move can win right away is saved, but its children are not needed to solve it.
+	 * @param current - bitboard of the pieces of the side to move
+	 * @param mask - bitboard of every piece on the board
+	 * @param moves - the number of pieces on the board
+	 * @param seen - every position collected so far
+	 * @param levels - the positions collected so far, by number of pieces
+	 */
+	static void collect(long current, long mask, int moves, LongByteMap seen, Level[] levels) {
+		if (moves == CELLS || !seen.add(Tablebase.canonicalKey(current, mask))) {
+			return; 		// a full board is a draw and is not stored
+		}
+		levels[moves].add(current, mask);
+		long possible = Position.possible(mask);
+		if ((Position.winningCells(current, mask) & possible) != 0) {
+			return;
+		}
+		for (int col = 0; col < Position.COL; col++) {
+			long move = possible & Position.columnMask(col);
+			if (move != 0) {
+				collect(current ^ mask, mask | move, moves + 1, seen, levels); 	// the opponent is the side to move next
+			}
+		}
+	}
+
+	/**
+	 * Name: solve
+	 * Description: Calculates the exact score of a position whose children have all been solved
+	 * @param current - bitboard of the pieces of the side to move
+	 * @param mask - bitboard of every piece on the board
+	 * @param moves - the number of pieces on the board
+	 * @param scores - the scores of the solved positions
+	 * @return - int value of the score, from the point of view of the side to move (as returned by Solver.solve())
+	 */
+	static int solve(long current, long mask, int moves, LongByteMap scores) {
+		long possible = Position.possible(mask);
+		if ((Position.winningCells(current, mask) & possible) != 0) {
+			return (CELLS + 1 - moves) / 2; 		// wins right away
+		}
+		int best = Integer.MIN_VALUE;
+		for (int col = 0; col < Position.COL; col++) {
+			long move = possible & Position.columnMask(col);
+			if (move != 0) {
+				int score = moves + 1 == CELLS ? 0 : -scores.get(Tablebase.canonicalKey(current ^ mask, mask | move));
+				best = Math.max(best, score);
+			}
+		}
+		return best;
+	}
+
+	// the positions with one number of pieces, in the order they were collected
+	static class Level {
+		long[] current = new long[1024];
+		long[] mask = new long[1024];
+		int size;
+
+		/**
+		 * Name: add
+		 * Description: Adds a position to the level
+		 * @param current - bitboard of the pieces of the side to move
+		 * @param mask - bitboard of every piece on the board
+		 */
+		void add(long current, long mask) {
+			if (size == this.current.length) {
+				this.current = java.util.Arrays.copyOf(this.current, size * 2);
+				this.mask = java.util.Arrays.copyOf(this.mask, size * 2);
+			}
+			this.current[size] = current;
+			this.mask[size++] = mask;
+		}
+	}
+
+	// open addressing hash map from the key of a position to its score, a HashMap<Long, Byte> would take several times the memory
+	static class LongByteMap {
+		long[] keys = new long[1 << 16]; 		// 0 is an empty slot, no key is 0
+		byte[] values = new byte[1 << 16];
+		int size;
+
+		/**
+		 * Name: add
+		 * Description: Adds a key with the score 0 if it is not in the map yet
+		 * @param key - the key of a position
+		 * @return - true if the key was added, false if it was already in the map
+		 */
+		boolean add(long key) {
+			int slot = find(key);
+			if (keys[slot] == key) {
+				return false;
+			}
+			keys[slot] = key;
+			if (++size * 3 > keys.length * 2) {
+				grow();
+			}
+			return true;
+		}
+
+		/**
+		 * Name: put
+		 * Description: Sets the score of a key that is already in the map
+		 * @param key - the key of a position
+		 * @param value - the score
+		 */
+		void put(long key, byte value) {
+			values[find(key)] = value;
+		}
+
+		/**
+		 * Name: get
+		 * Description: Returns the score of a key that is already in the map
+		 * @param key - the key of a position
+		 * @return - byte value of the score
+		 */
+		byte get(long key) {
+			return values[find(key)];
+		}
+
+		/**
+		 * Name: size
+		 * Description: Returns the number of keys in the map
+		 * @return - int value of the number of keys
+		 */
+		int size() {
+			return size;
+		}
+
+		/**
+		 * Name: find
+		 * Description: Returns the slot of a key, or the empty slot where it would go
+		 * @param key - the key of a position
+		 * @return - int value of the slot
+		 */
+		private int find(long key) {
+			int slot = (int) Tablebase.mix(key) & (keys.length - 1);
+			while (keys[slot] != 0 && keys[slot] != key) {
+				slot = (slot + 1) & (keys.length - 1); 		// linear probing
+			}
+			return slot;
+		}
+
+		/**
+		 * Name: grow
+		 * Description: Doubles the number of slots and puts every key back in
+		 */
+		private void grow() {
+			long[] oldKeys = keys;
+			byte[] oldValues = values;
+			keys = new long[oldKeys.length * 2];
+			values = new byte[oldKeys.length * 2];
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != 0) {
+					int slot = find(oldKeys[i]);
+					keys[slot] = oldKeys[i];
+					values[slot] = oldValues[i];
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,350 @@
+package ICS4U1;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+/*
+Class: Tournament.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Plays engine against engine to tell whether a change makes the bot stronger, or only slower. Two configurations (search
+			 depth, time and node budget, table size and evaluation weights) play every opening of a few plies twice, once with each
+			 side moving first, so neither side gets the easier half of an opening. Every engine plays the AI pieces in its own view
+			 of the game, so the one moving second searches the way the game's AI does when the player moves first. The games run in
+			 parallel on every core, every worker has its own single-threaded engines that are cleared before each game, so with
+			 depth or node limits the results are the same on every run. At the end the win/draw/loss count of the first configuration
+			 is printed with a 95% confidence interval of its score and Elo difference, and the distribution of the time per move of
+			 each configuration.
+			 A configuration is a list of settings, for example "name=new,depth=10,oddEven=50" (settings: name, depth, time in
+			 milliseconds, nodes, tt in megabytes, and any weight of EvalWeights by name, so the weights printed by Tuner can be pasted
+			 in). If a game record file is given, every game is added to it with the statistics of every move, in the order of the
+			 openings, configuration A moving first in every other game starting with the first one.
+			 Usage: java ICS4U1.Tournament <configuration A> <configuration B> [opening plies] [threads] [game record file]
+ */
+
+public class Tournament {
+
+	static final double Z_95 = 1.96; 			// two-sided 95% quantile of the normal distribution
+
+	// one side of the tournament
+	static class Config {
+		String name;
+		int depth = 8;
+		long timeMillis = Long.MAX_VALUE;
+		long maxNodes = Long.MAX_VALUE;
+		int ttMegabytes = 2;
+		EvalWeights weights = EvalWeights.DEFAULT;
+
+		/**
+		 * Name: parse
+		 * Description: Reads a configuration such as "name=new,depth=10,oddEven=50", any setting that is left out keeps its default
+		 * @param text - the settings, separated by commas
+		 * @param name - the name to use if the settings do not give one
+		 * @return - the configuration
+		 * @throws IllegalArgumentException - if a setting is unknown or its value is not a number
+		 */
+		static Config parse(String text, String name) {
+			Config config = new Config();
+			config.name = name;
+			for (String setting : text.split(",")) {
+				if (setting.isEmpty()) {
+					continue;
+				}
+				int equals = setting.indexOf('=');
+				if (equals < 0) {
+					throw new IllegalArgumentException("Expected key=value: " + setting);
+				}
+				String key = setting.substring(0, equals).trim();
+				String value = setting.substring(equals + 1).trim();
+				switch (key) {
+					case "name": config.name = value; break;
+					case "depth": config.depth = Integer.parseInt(value); break;
+					case "time": config.timeMillis = Long.parseLong(value); break;
+					case "nodes": config.maxNodes = Long.parseLong(value); break;
+					case "tt": config.ttMegabytes = Integer.parseInt(value); break;
+					default:
+						int weight = EvalWeights.indexOf(key);
+						if (weight < 0) {
+							throw new IllegalArgumentException("Unknown setting: " + key);
+						}
+						config.weights = config.weights.with(weight, Integer.parseInt(value));
+				}
+			}
+			config.limits(); 		// checks the limits straight away
+			return config;
+		}
+
+		/**
+		 * Name: limits
+		 * Description: Returns the search budget of every move of this configuration
+		 * @return - the search limits
+		 */
+		SearchLimits limits() {
+			return new SearchLimits(timeMillis, maxNodes, depth);
+		}
+
+		/**
+		 * Name: newEngine
+		 * Description: Creates a single-threaded engine of this configuration (no book, so the openings are played out by the search)
+		 * @return - the engine
+		 */
+		Engine newEngine() {
+			return new Engine(ttMegabytes, 1, null, null, false, 0, weights);
+		}
+
+		public String toString() {
+			return name + " (depth " + depth + (timeMillis == Long.MAX_VALUE ? "" : ", " + timeMillis + " ms")
+					+ (maxNodes == Long.MAX_VALUE ? "" : ", " + maxNodes + " nodes")
+					+ (weights == EvalWeights.DEFAULT ? "" : ", " + weights) + ")";
+		}
+	}
+
+	// the outcome of one game
+	static class Game {
+		int result; 					// 1 if configuration A won, 0 for a draw, -1 if it lost
+		long[][] moveNanos = new long[2][]; 	// time of every move, by configuration
+		long[] nodes = new long[2]; 			// nodes searched, by configuration
+		GameRecord record = new GameRecord(); 	// the moves of the game, the first mover plays the AI pieces
+	}
+
+	private final Config[] configs;
+	private final List<ThreadLocal<Engine>> engines = new ArrayList<>(); 	// one engine of each configuration for every worker
+
+	/**
+	 * Name: Tournament
+	 * Description: Constructor for the Tournament class
+	 * @param a - the first configuration, the results are given from its point of view
+	 * @param b - the second configuration
+	 */
+	public Tournament(Config a, Config b) {
+		this.configs = new Config[] {a, b};
+		for (Config config : configs) {
+			engines.add(ThreadLocal.withInitial(config::newEngine));
+		}
+	}
+
+	public static void main(String[] args) throws InterruptedException, IOException {
+		if (args.length < 2) {
+			System.out.println("Usage: java ICS4U1.Tournament <configuration A> <configuration B> [opening plies] [threads] "
+					+ "[game record file]");
+			return;
+		}
+		Config a = Config.parse(args[0], "A");
+		Config b = Config.parse(args[1], "B");
+		int plies = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+		List<String> openings = openings(plies);
+		System.out.println(a + " vs " + b + ": " + openings.size() + " openings, " + 2 * openings.size() + " games, " + threads
+				+ " threads");
+		long start = System.nanoTime();
+		List<Game> games = new Tournament(a, b).run(openings, threads);
+		System.out.printf("Played %d games in %.1f s%n", games.size(), (System.nanoTime() - start) / 1e9);
+		report(a, b, games);
+		if (args.length > 4) {
+			try (GameRecordWriter records = GameRecordWriter.open(Paths.get(args[4]))) {
+				for (Game game : games) {
+					records.write(game.record);
+				}
+			}
+			System.out.println("Saved the games to " + args[4]);
+		}
+	}
+
+	/**
+	 * Name: openings
+	 * Description: Lists every sequence of moves of the given length (columns 1-7) that does not end the game
+	 * @param plies - the number of moves of every opening
+	 * @return - the openings
+	 */
+	static List<String> openings(int plies) {
+		List<String> openings = new ArrayList<>();
+		addOpenings(new Position(0), "", plies, openings);
+		return openings;
+	}
+
+	/**
+	 * Name: addOpenings
+	 * Description: Adds every continuation of a move sequence to the list of openings
+	 * @param board - the position after the sequence
+	 * @param moves - the sequence so far
+	 * @param plies - the number of moves still to add
+	 * @param openings - the list of openings
+	 */
+	private static void addOpenings(Position board, String moves, int plies, List<String> openings) {
+		if (plies == 0) {
+			openings.add(moves);
+			return;
+		}
+		for (int col = 0; col < Position.COL; col++) {
+			if (board.canPlay(col)) {
+				Position next = new Position(board);
+				next.play(col, next.sideToMove());
+				if (!ConnectFourAI.isTerminalNode(next)) {
+					addOpenings(next, moves + (col + 1), plies - 1, openings);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Name: run
+	 * Description: Plays every opening twice, once with each configuration moving first
+	 * @param openings - the openings
+	 * @param threads - number of worker threads
+	 * @return - the games, in the order of the openings
+	 * @throws InterruptedException - if the tournament is interrupted while waiting for a worker
+	 */
+	public List<Game> run(List<String> openings, int threads) throws InterruptedException {
+		ExecutorService workers = Executors.newFixedThreadPool(threads, GameServer.daemonThreads("tournament-worker-"));
+		try {
+			List<Future<Game>> pending = new ArrayList<>();
+			for (String opening : openings) {
+				pending.add(workers.submit(() -> play(opening, 0)));
+				pending.add(workers.submit(() -> play(opening, 1)));
+			}
+			List<Game> games = new ArrayList<>();
+			for (Future<Game> game : pending) {
+				try {
+					games.add(game.get());
+				} catch (ExecutionException e) {
+					throw new IllegalStateException("A game failed", e.getCause());
+				}
+			}
+			return games;
+		} finally {
+			workers.shutdownNow();
+		}
+	}
+
+	/**
+	 * Name: play
+	 * Description: Plays one game from an opening. Each engine searches its own view of the game in which it plays the AI pieces, so
+	 * 				the engine that moves second searches as the AI does when the player moves first (firstTurn 1), with the other
+	 * 				side of the odd-even strategy. The record is kept from the view of the side that moved first.
+	 * @param opening - the opening moves (columns 1-7)
+	 * @param first - index of the configuration that moves first (0 for A, 1 for B)
+	 * @return - the outcome of the game
+	 */
+	Game play(String opening, int first) {
+		Engine[] players = new Engine[2];
+		for (int i = 0; i < 2; i++) {
+			players[i] = engines.get(i).get();
+			players[i].clear(); 		// every game starts from an empty table
+		}
+		long[][] moveNanos = {new long[Position.ROW * Position.COL], new long[Position.ROW * Position.COL]};
+		int[] moveCounts = new int[2];
+		Game game = new Game();
+
+		// views[0] is the game seen by the side that moved first, views[1] by the side that moved second
+		Position[] views = {Position.fromMoves(opening, ConnectFourAI.AI_PIECE), Position.fromMoves(opening, ConnectFourAI.PLAYER_PIECE)};
+		Position board = views[0];
+		game.record.reset(ConnectFourAI.AI_PIECE, true);
+		for (int i = 0; i < opening.length(); i++) {
+			game.record.add(opening.charAt(i) - '1');
+		}
+		while (!ConnectFourAI.isTerminalNode(board)) {
+			int order = board.moves % 2; 		// 0 if the side that moved first is to move
+			int side = order == 0 ? first : 1 - first;
+			long start = System.nanoTime();
+			SearchResult result = players[side].bestMove(views[order], configs[side].limits());
+			moveNanos[side][moveCounts[side]++] = System.nanoTime() - start;
+			game.nodes[side] += result.nodes;
+			game.record.add(result);
+			views[order].play(result.column, ConnectFourAI.AI_PIECE);
+			views[1 - order].play(result.column, ConnectFourAI.PLAYER_PIECE);
+		}
+
+		int winner = ConnectFourAI.winBoard(board, ConnectFourAI.AI_PIECE) ? first
+				: ConnectFourAI.winBoard(board, ConnectFourAI.PLAYER_PIECE) ? 1 - first : -1;
+		game.result = winner < 0 ? 0 : winner == 0 ? 1 : -1;
+		game.record.finish(board);
+		for (int i = 0; i < 2; i++) {
+			game.moveNanos[i] = Arrays.copyOf(moveNanos[i], moveCounts[i]);
+		}
+		return game;
+	}
+
+	/**
+	 * Name: report
+	 * Description: Prints the win/draw/loss count of configuration A with the 95% confidence interval of its score and Elo difference,
+	 * 				and the time per move of both configurations. The interval uses the variance of the game results (draws count as
+	 * 				half a point), so many draws give a narrower interval than the same score with few draws.
+	 * @param a - the first configuration
+	 * @param b - the second configuration
+	 * @param games - the games of the tournament
+	 */
+	static void report(Config a, Config b, List<Game> games) {
+		int n = games.size();
+		int wins = 0, draws = 0, losses = 0;
+		for (Game game : games) {
+			if (game.result > 0) {
+				wins++;
+			} else if (game.result == 0) {
+				draws++;
+			} else {
+				losses++;
+			}
+		}
+		double score = (wins + draws * 0.5) / n;
+		double variance = (wins * (1 - score) * (1 - score) + draws * (0.5 - score) * (0.5 - score) + losses * score * score) / n;
+		double margin = Z_95 * Math.sqrt(variance / n);
+		System.out.printf("%s: +%d =%d -%d, score %.1f%% +- %.1f%%, Elo %s [%s, %s]%n", a.name, wins, draws, losses, 100 * score,
+				100 * margin, elo(score), elo(score - margin), elo(score + margin));
+
+		Config[] configs = {a, b};
+		for (int i = 0; i < 2; i++) {
+			int moves = 0;
+			long nodes = 0;
+			for (Game game : games) {
+				moves += game.moveNanos[i].length;
+				nodes += game.nodes[i];
+			}
+			long[] nanos = new long[moves];
+			int filled = 0;
+			for (Game game : games) {
+				System.arraycopy(game.moveNanos[i], 0, nanos, filled, game.moveNanos[i].length);
+				filled += game.moveNanos[i].length;
+			}
+			Arrays.sort(nanos);
+			System.out.printf("%s: %d moves, ms per move p50 %.2f, p90 %.2f, p99 %.2f, max %.2f, %.0f nodes per move%n", configs[i].name,
+					moves, percentile(nanos, 50) / 1e6, percentile(nanos, 90) / 1e6, percentile(nanos, 99) / 1e6,
+					percentile(nanos, 100) / 1e6, moves == 0 ? 0.0 : (double) nodes / moves);
+		}
+	}
+
+	/**
+	 * Name: elo
+	 * Description: Converts a score to an Elo difference
+	 * @param score - the share of the points, between 0 and 1
+	 * @return - the Elo difference, rounded, or "-inf"/"+inf" for a score of 0 or 1
+	 */
+	static String elo(double score) {
+		if (score <= 0) {
+			return "-inf";
+		}
+		if (score >= 1) {
+			return "+inf";
+		}
+		return String.format("%+.0f", -400 * Math.log10(1 / score - 1));
+	}
+
+	/**
+	 * Name: percentile
+	 * Description: Returns a percentile of sorted values (nearest rank)
+	 * @param sorted - the values, in ascending order
+	 * @param percent - the percentile, between 0 and 100
+	 * @return - long value of the percentile, 0 if there are no values
+	 */
+	static long percentile(long[] sorted, int percent) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+		return sorted[Math.max(0, rank - 1)];
+	}
+}
@@ -0,0 +1,158 @@
+package ICS4U1;
+
+/*
+Class: TranspositionTable.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Fixed-size transposition table for the minimax search. Every entry is two longs (the position key and the packed data),
+			 stored in primitive arrays so the table never allocates after it is created. Entries are kept in buckets of two slots:
+			 the first slot keeps the deepest result (unless it was left over from an older search) and the second slot is always replaced.
+			 The table is shared by every search thread without locks: the key is stored XOR-ed with the data, so an entry that was
+			 torn by two threads writing at the same time no longer matches its key and is simply treated as a miss.
+ */
+
+public class TranspositionTable {
+
+	// bound types
+	static final int EXACT = 1; 	// the score is the exact value of the position
+	static final int LOWER = 2; 	// the real value is at least the score (the search failed high)
+	static final int UPPER = 3; 	// the real value is at most the score (the search failed low)
+
+	static final int NO_MOVE = 7; 	// stored when there is no best move
+	static final int ENTRY_BYTES = 16;
+
+	// layout of the data long: score (32 bits) | depth (6 bits) | bound (2 bits) | move (3 bits) | age (8 bits)
+	private static final int DEPTH_SHIFT = 32;
+	private static final int BOUND_SHIFT = 38;
+	private static final int MOVE_SHIFT = 40;
+	private static final int AGE_SHIFT = 43;
+
+	private final long[] keys;
+	private final long[] data;
+	private final int indexMask;
+	private volatile int age; 	// increased for every new search (before the search threads start), so leftovers from older moves can be replaced first
+
+	/**
+	 * Name: TranspositionTable
+	 * Description: Constructor for the TranspositionTable class
+	 * @param megabytes - memory budget of the table, the number of entries is rounded down to a power of two
+	 */
+	public TranspositionTable(int megabytes) {
+		long entries = Math.max(2, ((long) megabytes << 20) / ENTRY_BYTES);
+		int size = (int) Long.highestOneBit(Math.min(entries, 1L << 30));
+		keys = new long[size];
+		data = new long[size];
+		indexMask = size - 2; 	// index of the first slot of a bucket (always even)
+	}
+
+	/**
+	 * Name: newSearch
+	 * Description: Marks the start of a new search, entries from earlier searches become the first to be replaced
+	 */
+	public void newSearch() {
+		age = (age + 1) & 0xFF;
+	}
+
+	/**
+	 * Name: clear
+	 * Description: Empties the table (only while no search is using it)
+	 */
+	public void clear() {
+		java.util.Arrays.fill(keys, 0);
+		java.util.Arrays.fill(data, 0);
+		age = 0;
+	}
+
+	/**
+	 * Name: probe
+	 * Description: Looks up a position in the table
+	 * @param key - the key of the position
+	 * @return - long value of the packed entry, 0 if the position is not in the table
+	 */
+	public long probe(long key) {
+		int i = index(key);
+		for (int slot = i; slot < i + 2; slot++) {
+			long entry = data[slot]; 		// read once, another thread may be writing the slot
+			if (entry != 0 && (keys[slot] ^ entry) == key) {
+				return entry;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Name: store
+	 * Description: Saves the result of a search into the table
+	 * @param key - the key of the position
+	 * @param depth - the searching depth of the result
+	 * @param bound - EXACT, LOWER or UPPER
+	 * @param score - the score returned by the search
+	 * @param move - the best column found, -1 if there is none
+	 */
+	public void store(long key, int depth, int bound, int score, int move) {
+		long entry = (score & 0xFFFFFFFFL) | ((long) depth << DEPTH_SHIFT) | ((long) bound << BOUND_SHIFT)
+				| ((long) (move < 0 ? NO_MOVE : move) << MOVE_SHIFT) | ((long) age << AGE_SHIFT);
+		int i = index(key);
+
+		// the same position is always overwritten in place
+		long first = data[i];
+		if ((keys[i + 1] ^ data[i + 1]) == key) {
+			i++;
+		}
+		// the first slot is replaced if it is empty, from an older search, or not deeper than the new result
+		else if ((keys[i] ^ first) != key && first != 0 && age(first) == age && depth(first) > depth) {
+			i++; 			// otherwise the second slot is always replaced
+		}
+		keys[i] = key ^ entry;
+		data[i] = entry;
+	}
+
+	/**
+	 * Name: boundOf
+	 * Description: Finds the bound type of a search result from the window it was searched with
+	 * @param score - the score returned by the search
+	 * @param alpha - alpha value the node was searched with
+	 * @param beta - beta value the node was searched with
+	 * @return - EXACT, LOWER or UPPER
+	 */
+	static int boundOf(int score, int alpha, int beta) {
+		if (score <= alpha) {
+			return UPPER;
+		}
+		if (score >= beta) {
+			return LOWER;
+		}
+		return EXACT;
+	}
+
+	/**
+	 * Name: index
+	 * Description: Hashes the key into the index of its bucket
+	 * @param key - the key of the position
+	 * @return - int value of the index of the first slot in the bucket
+	 */
+	private int index(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & indexMask;
+	}
+
+	static int score(long entry) {
+		return (int) entry;
+	}
+
+	static int depth(long entry) {
+		return (int) (entry >>> DEPTH_SHIFT) & 0x3F;
+	}
+
+	static int bound(long entry) {
+		return (int) (entry >>> BOUND_SHIFT) & 0x3;
+	}
+
+	static int move(long entry) {
+		int move = (int) (entry >>> MOVE_SHIFT) & 0x7;
+		return move == NO_MOVE ? -1 : move;
+	}
+
+	static int age(long entry) {
+		return (int) (entry >>> AGE_SHIFT) & 0xFF;
+	}
+}
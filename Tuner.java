@@ -0,0 +1,298 @@
+package ICS4U1;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/*
+Class: Tuner.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Tunes the weights of the evaluation on recorded games (Texel tuning). Every position of every finished game in a game
+			 record file is labelled with the result of its game (1 if the AI won, 0.5 for a draw, 0 if the player won), and the error
+			 of a set of weights is the mean squared difference between the labels and the win chance that the weights predict,
+			 1 / (1 + e^(-k * score)). The constant k is first fitted to the current weights, then every weight is moved up or down by a
+			 step while that lowers the error, and the step is halved until it reaches 1 (coordinate descent).
+			 Apart from four in a line, the score of a board is the sum of every weight times one feature of the board, so the features
+			 of every position are extracted once while the file is read, and after that the error of any set of weights only needs
+			 one dot product per position. The error is summed over all positions in parallel with fork-join.
+			 Positions where the game is already over, or where the side to move can win right away, are left out, since their result
+			 does not depend on the weights. The weights are printed in the form Tournament reads them, to check the tuned weights
+			 against the current ones in real games.
+			 Usage: java ICS4U1.Tuner <game record file> [max positions] [threads] [first ply]
+ */
+
+public class Tuner {
+
+	static final int FEATURES = EvalWeights.NAMES.length;
+	static final int INITIAL_STEP = 16; 			// the first step of every weight, halved down to 1
+	static final int CHUNK = 1 << 14; 				// positions summed by one fork-join task
+	private static final EvalWeights UNIT = new EvalWeights(new int[] {1, 1, 1, 1, 1, 1}); 	// makes oddEvenBonus() return 0 or 1
+
+	private short[] features = new short[FEATURES * 1024]; 	// the features of every position, one after another
+	private byte[] results = new byte[1024]; 				// the result of every position's game, 2 if the AI won, 1 for a draw, 0 if it lost
+	private int size; 										// number of positions
+	private int capacity = Integer.MAX_VALUE / FEATURES; 	// the most positions load() keeps
+	private final ForkJoinPool pool;
+
+	/**
+	 * Name: Tuner
+	 * Description: Constructor for the Tuner class
+	 * @param threads - number of threads that sum the error
+	 */
+	public Tuner(int threads) {
+		this.pool = new ForkJoinPool(threads);
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1) {
+			System.out.println("Usage: java ICS4U1.Tuner <game record file> [max positions] [threads] [first ply]");
+			return;
+		}
+		long maxPositions = args.length > 1 ? Long.parseLong(args[1]) : Integer.MAX_VALUE;
+		int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		int firstPly = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+		Tuner tuner = new Tuner(threads);
+		long start = System.nanoTime();
+		int games = tuner.load(Paths.get(args[0]), maxPositions, firstPly);
+		System.out.printf("Read %d positions from %d games in %.1f s%n", tuner.size, games, (System.nanoTime() - start) / 1e9);
+		if (tuner.size == 0) {
+			return;
+		}
+
+		start = System.nanoTime();
+		int[] weights = EvalWeights.DEFAULT.vector();
+		double k = tuner.fitK(weights);
+		System.out.printf("k = %.6f, error %.6f with %s%n", k, tuner.error(weights, k), EvalWeights.DEFAULT);
+		EvalWeights tuned = tuner.tune(EvalWeights.DEFAULT, k);
+		System.out.printf("Tuned in %.1f s: %s%n", (System.nanoTime() - start) / 1e9, tuned);
+	}
+
+	/**
+	 * Name: load
+	 * Description: Reads the positions of every finished game of a game record file and extracts their features
+	 * @param file - path of the game record file
+	 * @param maxPositions - the most positions to read (no more than Integer.MAX_VALUE / FEATURES, so the features fit in one array)
+	 * @param firstPly - positions with fewer pieces than this are left out
+	 * @return - int value of the number of games read
+	 * @throws IOException - if the file cannot be read or is not a game record file
+	 */
+	public int load(Path file, long maxPositions, int firstPly) throws IOException {
+		capacity = (int) Math.min(maxPositions, Integer.MAX_VALUE / FEATURES);
+		GameRecord record = new GameRecord();
+		int games = 0;
+		try (GameRecordReader reader = GameRecordReader.open(file)) {
+			while (size < capacity && reader.next(record)) {
+				if (record.result == GameRecord.UNFINISHED) {
+					continue;
+				}
+				byte result = (byte) (record.result == GameRecord.AI_WON ? 2 : record.result == GameRecord.DRAW ? 1 : 0);
+				Position board = new Position(record.firstPiece == ConnectFourAI.AI_PIECE ? 0 : 1);
+				int piece = record.firstPiece;
+				for (int i = 0; i < record.moveCount && size < capacity; i++) {
+					board.play(record.moves[i], piece);
+					piece = 1 - piece;
+					if (board.moves >= firstPly && isQuiet(board)) {
+						add(board, result);
+					}
+				}
+				games++;
+			}
+		}
+		return games;
+	}
+
+	/**
+	 * Name: isQuiet
+	 * Description: Checks that a position is worth tuning on: the game is not over and the side to move cannot win right away
+	 * @param board - the position
+	 * @return - true if the position is quiet
+	 */
+	static boolean isQuiet(Position board) {
+		if (ConnectFourAI.isTerminalNode(board)) {
+			return false;
+		}
+		long mask = board.mask();
+		return (Position.winningCells(board.pieces[board.sideToMove()], mask) & Position.possible(mask)) == 0;
+	}
+
+	/**
+	 * Name: add
+	 * Description: Extracts the features of a position and adds it to the training positions
+	 * @param board - the position (without four in a line)
+	 * @param result - the result of the position's game
+	 */
+	private void add(Position board, byte result) {
+		if (size == results.length) {
+			int length = (int) Math.min(2L * results.length, capacity); 	// doubling would overflow an int long before the cap
+			features = Arrays.copyOf(features, length * FEATURES);
+			results = Arrays.copyOf(results, length);
+		}
+		int[] f = features(board);
+		for (int i = 0; i < FEATURES; i++) {
+			features[size * FEATURES + i] = (short) f[i];
+		}
+		results[size++] = result;
+	}
+
+	/**
+	 * Name: features
+	 * Description: Counts the features of a board, so that the score of the board with any weights is the sum of every weight times
+	 * 				its feature (the same windows as ConnectFourAI.scanBoardScore(), counted instead of scored)
+	 * @param board - the board (without four in a line)
+	 * @return - the features, in the order of EvalWeights.NAMES
+	 */
+	static int[] features(Position board) {
+		int[] f = new int[FEATURES];
+		long aiPieces = board.pieces[ConnectFourAI.AI_PIECE];
+		long playerPieces = board.pieces[ConnectFourAI.PLAYER_PIECE];
+		long mask = aiPieces | playerPieces;
+		long center = Position.columnMask(3);
+		f[EvalWeights.CENTER] = Long.bitCount(aiPieces & center);
+		f[EvalWeights.CENTER_PLAYER] = -Long.bitCount(playerPieces & center);
+
+		for (int w = 0; w < Position.WINDOWS.length; w++) {
+			long window = Position.WINDOWS[w];
+			int aiPieceCount = Long.bitCount(aiPieces & window);
+			int playerPieceCount = Long.bitCount(playerPieces & window);
+			if (aiPieceCount + playerPieceCount != 3 || (aiPieceCount != 3 && playerPieceCount != 3)) {
+				continue; 		// not a threat
+			}
+			int piece = aiPieceCount == 3 ? ConnectFourAI.AI_PIECE : ConnectFourAI.PLAYER_PIECE;
+			int sign = aiPieceCount == 3 ? 1 : -1;
+			if (Position.VERTICAL[w]) {
+				f[EvalWeights.VERTICAL_THREE] += sign;
+			}
+			else {
+				int bit = Long.numberOfTrailingZeros(window & ~mask);
+				int c = bit / Position.H1;
+				int r = Position.ROW - 1 - bit % Position.H1;
+				f[EvalWeights.THREE] += sign;
+				f[EvalWeights.ROW_GAP] -= sign * (board.nextOpenRow(c) - r);
+				f[EvalWeights.ODD_EVEN] += sign * ConnectFourAI.oddEvenBonus(r, piece, board.firstTurn, UNIT);
+			}
+		}
+		return f;
+	}
+
+	/**
+	 * Name: error
+	 * Description: Returns the mean squared difference between the results of the positions and the win chance predicted by the weights
+	 * @param weights - the weights, in the order of EvalWeights.NAMES
+	 * @param k - the scale of the score in the win chance
+	 * @return - double value of the error
+	 */
+	public double error(int[] weights, double k) {
+		return pool.invoke(new ErrorTask(features, results, weights, k, 0, size)) / size;
+	}
+
+	/**
+	 * Name: fitK
+	 * Description: Finds the scale of the score that gives the weights the lowest error (golden section search on the logarithm of k)
+	 * @param weights - the weights, in the order of EvalWeights.NAMES
+	 * @return - double value of k
+	 */
+	public double fitK(int[] weights) {
+		double ratio = (Math.sqrt(5) - 1) / 2;
+		double low = Math.log(1e-5);
+		double high = Math.log(1);
+		for (int i = 0; i < 40; i++) {
+			double a = high - ratio * (high - low);
+			double b = low + ratio * (high - low);
+			if (error(weights, Math.exp(a)) < error(weights, Math.exp(b))) {
+				high = b;
+			} else {
+				low = a;
+			}
+		}
+		return Math.exp((low + high) / 2);
+	}
+
+	/**
+	 * Name: tune
+	 * Description: Lowers the error one weight at a time: every weight is moved up by a step, or down if up is not better, for as long
+	 * 				as that lowers the error, then the step is halved, until it reaches 1
+	 * @param start - the weights to start from
+	 * @param k - the scale of the score in the win chance
+	 * @return - the tuned weights
+	 */
+	public EvalWeights tune(EvalWeights start, double k) {
+		int[] best = start.vector();
+		double bestError = error(best, k);
+		for (int step = INITIAL_STEP; step >= 1; step /= 2) {
+			boolean improved = true;
+			while (improved) {
+				improved = false;
+				for (int i = 0; i < FEATURES; i++) {
+					for (int delta : new int[] {step, -step}) {
+						int[] candidate = best.clone();
+						candidate[i] += delta;
+						double candidateError = error(candidate, k);
+						if (candidateError < bestError) {
+							best = candidate;
+							bestError = candidateError;
+							improved = true;
+							System.out.printf("step %2d: %s = %d, error %.6f%n", step, EvalWeights.NAMES[i], best[i], bestError);
+							break;
+						}
+					}
+				}
+			}
+		}
+		return new EvalWeights(best);
+	}
+
+	// sums the squared errors of a range of positions, splitting it in two until it is small enough
+	private static class ErrorTask extends RecursiveTask<Double> {
+		private static final long serialVersionUID = 1L;
+		private final short[] features;
+		private final byte[] results;
+		private final int[] weights;
+		private final double k;
+		private final int from;
+		private final int to;
+
+		/**
+		 * Name: ErrorTask
+		 * Description: Constructor for the ErrorTask class
+		 * @param features - the features of every position, one after another
+		 * @param results - the result of every position's game
+		 * @param weights - the weights, in the order of EvalWeights.NAMES
+		 * @param k - the scale of the score in the win chance
+		 * @param from - the first position of the range
+		 * @param to - the position after the last one of the range
+		 */
+		ErrorTask(short[] features, byte[] results, int[] weights, double k, int from, int to) {
+			this.features = features;
+			this.results = results;
+			this.weights = weights;
+			this.k = k;
+			this.from = from;
+			this.to = to;
+		}
+
+		protected Double compute() {
+			if (to - from > CHUNK) {
+				int middle = (from + to) >>> 1;
+				ErrorTask left = new ErrorTask(features, results, weights, k, from, middle);
+				left.fork();
+				double right = new ErrorTask(features, results, weights, k, middle, to).compute();
+				return left.join() + right;
+			}
+			double sum = 0;
+			for (int p = from; p < to; p++) {
+				int score = 0;
+				int at = p * FEATURES;
+				for (int i = 0; i < FEATURES; i++) {
+					score += weights[i] * features[at + i];
+				}
+				double error = results[p] * 0.5 - 1 / (1 + Math.exp(-k * score));
+				sum += error * error;
+			}
+			return sum;
+		}
+	}
+}
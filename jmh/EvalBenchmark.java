@@ -0,0 +1,60 @@
+package ICS4U1;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+Class: EvalBenchmark.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: JMH benchmarks of the evaluation and win detection on their own, on the same positions as SearchBenchmark: the incremental
+			 boardScore(), the full scan of scanBoardScore(), winBoard(), isTerminalNode() and pickBestMove(). Every benchmark returns
+			 its result, so the JIT cannot remove the call.
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class EvalBenchmark {
+
+	@Param({"start", "44", "4453", "44444433", "5543541633", "435566271744", "32164625577331", "6356516547453777"})
+	public String position;
+
+	private Position board;
+	private int piece; 		// the side that moved last, the one that can have four in a line
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		board = SearchBenchmark.fromMoves(position);
+		piece = 1 - board.sideToMove();
+	}
+
+	@Benchmark
+	public int boardScore() {
+		return ConnectFourAI.boardScore(board);
+	}
+
+	@Benchmark
+	public int scanBoardScore() {
+		return ConnectFourAI.scanBoardScore(board);
+	}
+
+	@Benchmark
+	public boolean winBoard() {
+		return ConnectFourAI.winBoard(board, piece);
+	}
+
+	@Benchmark
+	public boolean isTerminalNode() {
+		return ConnectFourAI.isTerminalNode(board);
+	}
+
+	@Benchmark
+	public LinkedList<ConnectFourAI.Pair> pickBestMove() {
+		return ConnectFourAI.pickBestMove(board, board.sideToMove() == ConnectFourAI.AI_PIECE);
+	}
+}
@@ -0,0 +1,128 @@
+package ICS4U1;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/*
+Class: SearchBenchmark.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: JMH benchmarks of the search on a fixed suite of opening, middle-game and endgame positions (columns 1-7, the AI moves
+			 first, "start" is the empty board):
+			 - miniMax: one fixed-depth Engine.miniMax() search (no iterative deepening, no book) at depth 6, 8 and 10, the time to depth
+			 - bestMove: the whole move search the game uses (Engine.bestMove() with iterative deepening and aspiration windows) with
+			   1, 2 and 4 threads, which shows how the parallel search scales
+			 Every search starts from an empty transposition table, which is cleared outside of the timed part. Both benchmarks run in
+			 two modes: in the avgt rows the score is the time to depth, and in the thrpt rows the "nodes" counter is the nodes searched
+			 per millisecond. The results of the searches are returned, so the JIT cannot remove them.
+ */
+
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SearchBenchmark {
+
+	static final int TT_SIZE_MB = 16;
+
+	// nodes searched, reported by JMH as a rate in the throughput mode
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Nodes {
+		public long nodes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			nodes = 0;
+		}
+	}
+
+	// a fixed-depth search of one position
+	@State(Scope.Thread)
+	public static class FixedDepth {
+
+		@Param({"start", "44", "4453", "44444433", "5543541633", "435566271744", "32164625577331", "6356516547453777"})
+		public String position;
+
+		@Param({"6", "8", "10"})
+		public int depth;
+
+		Position board;
+		boolean maximizingPlayer;
+		Engine engine;
+		long nodes; 		// nodes of one search, the same on every run from an empty table
+
+		/**
+		 * Name: setUp
+		 * Description: Builds the position and the engine, and counts the nodes of one search
+		 */
+		@Setup(Level.Trial)
+		public void setUp() {
+			board = fromMoves(position);
+			maximizingPlayer = board.sideToMove() == ConnectFourAI.AI_PIECE;
+			engine = new Engine(TT_SIZE_MB, 1, null);
+
+			// miniMax() does not count its nodes, a searcher on its own empty table visits exactly the same ones
+			Searcher counter = new Searcher(new TranspositionTable(TT_SIZE_MB), board);
+			counter.search(depth, Integer.MIN_VALUE, Integer.MAX_VALUE, maximizingPlayer);
+			nodes = counter.nodes;
+		}
+
+		@Setup(Level.Invocation)
+		public void clearTable() {
+			engine.clear();
+		}
+	}
+
+	// the whole move search of the game, with one thread or more
+	@State(Scope.Thread)
+	public static class Parallel {
+
+		@Param({"start", "44", "4453", "44444433", "5543541633", "435566271744", "32164625577331", "6356516547453777"})
+		public String position;
+
+		@Param({"12"})
+		public int depth;
+
+		@Param({"1", "2", "4"})
+		public int threads;
+
+		Position board;
+		Engine engine;
+
+		@Setup(Level.Trial)
+		public void setUp() {
+			board = fromMoves(position);
+			engine = new Engine(ConnectFourAI.TT_SIZE_MB, threads, null);
+		}
+
+		@Setup(Level.Invocation)
+		public void clearTable() {
+			engine.clear();
+		}
+	}
+
+	@Benchmark
+	public ConnectFourAI.Pair miniMax(FixedDepth state, Nodes counters) {
+		counters.nodes += state.nodes;
+		return state.engine.miniMax(state.depth, state.board, Integer.MIN_VALUE, Integer.MAX_VALUE, state.maximizingPlayer);
+	}
+
+	@Benchmark
+	public SearchResult bestMove(Parallel state, Nodes counters) {
+		SearchResult result = state.engine.bestMove(state.board, SearchLimits.depth(state.depth));
+		counters.nodes += result.nodes;
+		return result;
+	}
+
+	/**
+	 * Name: fromMoves
+	 * Description: Builds a position of the suite
+	 * @param moves - the moves (columns 1-7), "start" for the empty board
+	 * @return - the position, the AI moved first
+	 */
+	static Position fromMoves(String moves) {
+		return Position.fromMoves(moves.equals("start") ? "" : moves, ConnectFourAI.AI_PIECE);
+	}
+}
@@ -0,0 +1,75 @@
+package ICS4U1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/*
+Class: AccountStoreTest.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Checks that accounts and their results survive closing and reopening the account file, through the growth of the table,
+			 and that a password hashed with fewer iterations still logs in after the iteration count is raised. The stores use a
+			 small iteration count so that the tests stay fast.
+ */
+
+class AccountStoreTest {
+
+	static final int ITERATIONS = 10;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void accountsSurviveAReopen() throws IOException {
+		Path file = dir.resolve("accounts.db");
+		int accounts = AccountStore.INITIAL_SLOTS; 		// more than three quarters of the first table, so it has to grow
+		try (AccountStore store = AccountStore.open(file, ITERATIONS)) {
+			Player bob = store.create("bob", "secret");
+			assertNotNull(bob);
+			assertNull(store.create("bob", "other"), "the username is already taken");
+			store.record("bob", bob, ConnectFourAI.PLAYER_PIECE);
+			store.record("bob", bob, -1);
+			for (int i = 0; i < accounts; i++) {
+				assertNotNull(store.create("user" + i, "pw" + i));
+			}
+		}
+		try (AccountStore store = AccountStore.open(file, ITERATIONS)) {
+			assertEquals(accounts + 1, store.size());
+			assertNull(store.login("bob", "wrong"));
+			assertNull(store.login("nobody", "secret"));
+			Player bob = store.login("bob", "secret");
+			assertEquals(1, bob.wins);
+			assertEquals(0, bob.losses);
+			assertEquals(1, bob.ties);
+			for (int i = 0; i < accounts; i += 97) {
+				assertNotNull(store.login("user" + i, "pw" + i));
+			}
+		}
+	}
+
+	@Test
+	void raisedIterationsKeepOldPasswords() throws IOException {
+		Path file = dir.resolve("accounts.db");
+		try (AccountStore store = AccountStore.open(file, ITERATIONS)) {
+			store.create("bob", "secret");
+		}
+		try (AccountStore store = AccountStore.open(file, ITERATIONS * 10)) {
+			assertNull(store.login("bob", "wrong"));
+			assertNotNull(store.login("bob", "secret")); 	// hashed again with the new count
+			assertNotNull(store.login("bob", "secret"));
+		}
+		try (AccountStore store = AccountStore.open(file, ITERATIONS)) {
+			assertNotNull(store.login("bob", "secret"));
+			assertNull(store.login("bob", "wrong"));
+		}
+	}
+
+	@Test
+	void iterationsMustBePositive() {
+		assertThrows(IllegalArgumentException.class, () -> AccountStore.open(dir.resolve("accounts.db"), 0));
+	}
+}
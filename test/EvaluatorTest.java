@@ -0,0 +1,112 @@
+package ICS4U1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/*
+Class: EvaluatorTest.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Checks the incremental evaluation and win detection against full scans of the board: boardScore() must always equal
+			 scanBoardScore() after any move or take-back, with the default and with tuned weights, and winBoard() and
+			 isTerminalNode() must agree with a cell-by-cell search for four in a line.
+ */
+
+class EvaluatorTest {
+
+	static final EvalWeights TUNED = new EvalWeights(new int[] {25, 12, 90, 60, 7, 55});
+
+	@Test
+	void incrementalScoreMatchesScan() {
+		Random random = new Random(1);
+		for (int game = 0; game < 400; game++) {
+			EvalWeights weights = game % 2 == 0 ? EvalWeights.DEFAULT : TUNED;
+			Position board = new Position(random.nextInt(2), weights);
+			while (true) {
+				int score = ConnectFourAI.boardScore(board);
+				assertEquals(ConnectFourAI.scanBoardScore(board), score, "game " + game + " after " + board.moves + " moves");
+
+				// every move from here, and back (either piece, so that positions no game reaches are covered too)
+				for (int col = 0; col < Position.COL; col++) {
+					if (board.canPlay(col)) {
+						board.play(col, random.nextInt(2));
+						assertEquals(ConnectFourAI.scanBoardScore(board), ConnectFourAI.boardScore(board));
+						board.undo(col);
+						assertEquals(score, ConnectFourAI.boardScore(board), "the score changed after a take-back");
+					}
+				}
+				if (ConnectFourAI.isTerminalNode(board)) {
+					break;
+				}
+				board.play(RandomGames.randomColumn(random, board), board.sideToMove());
+			}
+		}
+	}
+
+	@Test
+	void copiedPositionKeepsItsScore() {
+		Random random = new Random(2);
+		for (int game = 0; game < 100; game++) {
+			Position board = RandomGames.play(random, random.nextInt(30));
+			Position copy = new Position(board);
+			assertEquals(ConnectFourAI.boardScore(board), ConnectFourAI.boardScore(copy));
+			if (!ConnectFourAI.isTerminalNode(copy)) {
+				copy.play(RandomGames.randomColumn(random, copy), copy.sideToMove());
+				assertEquals(ConnectFourAI.scanBoardScore(copy), ConnectFourAI.boardScore(copy));
+			}
+		}
+	}
+
+	@Test
+	void winDetectionMatchesScan() {
+		Random random = new Random(3);
+		for (int game = 0; game < 1000; game++) {
+			Position board = RandomGames.play(random, random.nextInt(Position.ROW * Position.COL + 1));
+			boolean aiWon = hasFour(board, ConnectFourAI.AI_PIECE);
+			boolean playerWon = hasFour(board, ConnectFourAI.PLAYER_PIECE);
+			assertEquals(aiWon, ConnectFourAI.winBoard(board, ConnectFourAI.AI_PIECE));
+			assertEquals(playerWon, ConnectFourAI.winBoard(board, ConnectFourAI.PLAYER_PIECE));
+			assertEquals(aiWon || playerWon || board.moves == Position.ROW * Position.COL, ConnectFourAI.isTerminalNode(board));
+		}
+	}
+
+	/**
+	 * Name: hasFour
+	 * Description: Looks for four of a piece in a line by checking every cell in every direction
+	 * @param board - the position
+	 * @param piece - the piece
+	 * @return - true if the piece has four in a line
+	 */
+	static boolean hasFour(Position board, int piece) {
+		char mark = (char) (piece + 48);
+		int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+		for (int row = 0; row < Position.ROW; row++) {
+			for (int col = 0; col < Position.COL; col++) {
+				for (int[] direction : directions) {
+					int length = 0;
+					while (length < 4 && inside(row + direction[0] * length, col + direction[1] * length)
+							&& board.cell(row + direction[0] * length, col + direction[1] * length) == mark) {
+						length++;
+					}
+					if (length == 4) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Name: inside
+	 * Description: Checks whether a cell is on the board
+	 * @param row - row number
+	 * @param col - column number
+	 * @return - true if the cell is on the board
+	 */
+	static boolean inside(int row, int col) {
+		return row >= 0 && row < Position.ROW && col >= 0 && col < Position.COL;
+	}
+}
@@ -0,0 +1,108 @@
+package ICS4U1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/*
+Class: GameRecordTest.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Checks that games written by GameRecordWriter come back unchanged from GameRecordReader, and that a game cut off at the
+			 end of the file (by a crash while writing) is removed when the file is opened again.
+ */
+
+class GameRecordTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void gamesComeBackUnchanged() throws IOException {
+		Path file = dir.resolve("games.bin");
+		List<String> written = writeGames(file, new Random(1), 300);
+		assertEquals(written, readGames(file));
+	}
+
+	@Test
+	void cutOffGameIsRemoved() throws IOException {
+		Path file = dir.resolve("games.bin");
+		List<String> written = writeGames(file, new Random(2), 20);
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 3); 		// the end of the last game never reached the disk
+		}
+		written.remove(written.size() - 1);
+		written.addAll(writeGames(file, new Random(3), 5));
+		assertEquals(written, readGames(file));
+	}
+
+	@Test
+	void removeLastTakesBackAMove() {
+		GameRecord record = new GameRecord();
+		record.reset(ConnectFourAI.PLAYER_PIECE, false);
+		record.add(3);
+		record.add(4);
+		record.removeLast();
+		assertEquals(1, record.moveCount);
+		assertEquals(3, record.moves[0]);
+		record.removeLast();
+		assertThrows(IllegalStateException.class, record::removeLast);
+	}
+
+	/**
+	 * Name: writeGames
+	 * Description: Appends random games to a file, every one played to the end
+	 * @param file - path of the file
+	 * @param random - the random numbers
+	 * @param games - the number of games
+	 * @return - List<String> of the games written, as text
+	 * @throws IOException - if the file cannot be written
+	 */
+	static List<String> writeGames(Path file, Random random, int games) throws IOException {
+		List<String> written = new ArrayList<>();
+		GameRecord record = new GameRecord();
+		try (GameRecordWriter writer = GameRecordWriter.open(file)) {
+			for (int game = 0; game < games; game++) {
+				int firstPiece = random.nextInt(2);
+				record.reset(firstPiece, false);
+				Position board = new Position(firstPiece == ConnectFourAI.AI_PIECE ? 0 : 1);
+				int piece = firstPiece;
+				while (!ConnectFourAI.isTerminalNode(board)) {
+					int col = RandomGames.randomColumn(random, board);
+					board.play(col, piece);
+					record.add(col);
+					piece = 1 - piece;
+				}
+				record.finish(board);
+				writer.write(record);
+				written.add(record.toString());
+			}
+		}
+		return written;
+	}
+
+	/**
+	 * Name: readGames
+	 * Description: Reads every game of a file
+	 * @param file - path of the file
+	 * @return - List<String> of the games, as text
+	 * @throws IOException - if the file cannot be read or a game is corrupt
+	 */
+	static List<String> readGames(Path file) throws IOException {
+		List<String> read = new ArrayList<>();
+		GameRecord record = new GameRecord();
+		try (GameRecordReader reader = GameRecordReader.open(file)) {
+			while (reader.next(record)) {
+				read.add(record.toString());
+			}
+		}
+		return read;
+	}
+}
@@ -0,0 +1,47 @@
+package ICS4U1;
+
+import java.util.Random;
+
+/*
+Class: RandomGames.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Random positions for the tests. Both sides drop their pieces into random columns, so the positions cover openings,
+			 middle games and nearly full boards, with either side moving first.
+ */
+
+final class RandomGames {
+
+	private RandomGames() {
+	}
+
+	/**
+	 * Name: play
+	 * Description: Plays random moves from the empty board, stopping early if the game ends
+	 * @param random - the random numbers
+	 * @param plies - the number of moves to play
+	 * @return - the position, with a random side moving first
+	 */
+	static Position play(Random random, int plies) {
+		Position board = new Position(random.nextInt(2));
+		for (int i = 0; i < plies && !ConnectFourAI.isTerminalNode(board); i++) {
+			board.play(randomColumn(random, board), board.sideToMove());
+		}
+		return board;
+	}
+
+	/**
+	 * Name: randomColumn
+	 * Description: Picks a random column that still has room
+	 * @param random - the random numbers
+	 * @param board - the position, which must not be full
+	 * @return - int value of the column
+	 */
+	static int randomColumn(Random random, Position board) {
+		int col;
+		do {
+			col = random.nextInt(Position.COL);
+		} while (!board.canPlay(col));
+		return col;
+	}
+}
@@ -0,0 +1,111 @@
+package ICS4U1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/*
+Class: SearcherTest.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Checks the search against a plain minimax with no pruning, no move ordering and no transposition table: a fixed-depth
+			 search must return exactly the minimax score and a move that keeps it, with a big transposition table and with one
+			 too small to hold anything. Full-depth searches of endgames must also find the exact result of the Solver.
+ */
+
+class SearcherTest {
+
+	@Test
+	void miniMaxMatchesPlainMinimax() {
+		Random random = new Random(7);
+		for (int game = 0; game < 600; game++) {
+			Position board = RandomGames.play(random, random.nextInt(30));
+			if (ConnectFourAI.isTerminalNode(board)) {
+				continue;
+			}
+			int depth = 1 + random.nextInt(5);
+			boolean maximizingPlayer = board.sideToMove() == ConnectFourAI.AI_PIECE;
+			int expected = minimax(board, depth, maximizingPlayer);
+
+			ConnectFourAI.Pair result = new Engine(4, 1, null).miniMax(depth, board, Integer.MIN_VALUE, Integer.MAX_VALUE,
+					maximizingPlayer);
+			assertEquals(expected, result.val, "game " + game + " at depth " + depth);
+			board.play(result.column, board.sideToMove());
+			assertEquals(expected, minimax(board, depth - 1, !maximizingPlayer), "the move does not keep the score");
+		}
+	}
+
+	@Test
+	void transpositionTableDoesNotChangeTheScore() {
+		Random random = new Random(8);
+		for (int game = 0; game < 200; game++) {
+			Position board = RandomGames.play(random, random.nextInt(24));
+			if (ConnectFourAI.isTerminalNode(board)) {
+				continue;
+			}
+			int depth = 4 + random.nextInt(5);
+			boolean maximizingPlayer = board.sideToMove() == ConnectFourAI.AI_PIECE;
+			Searcher withTable = new Searcher(new TranspositionTable(16), board);
+			Searcher withoutTable = new Searcher(new TranspositionTable(0), board); 	// a single bucket, almost every probe misses
+			assertEquals(withoutTable.search(depth, Integer.MIN_VALUE, Integer.MAX_VALUE, maximizingPlayer).val,
+					withTable.search(depth, Integer.MIN_VALUE, Integer.MAX_VALUE, maximizingPlayer).val, "game " + game + " at depth " + depth);
+		}
+	}
+
+	@Test
+	void fullDepthSearchMatchesSolver() {
+		Random random = new Random(11);
+		Solver solver = new Solver(8);
+		int checked = 0;
+		while (checked < 60) {
+			Position board = RandomGames.play(random, 28 + random.nextInt(6));
+			if (ConnectFourAI.isTerminalNode(board) || board.moves < 28) {
+				continue;
+			}
+			int piece = board.sideToMove();
+			boolean maximizingPlayer = piece == ConnectFourAI.AI_PIECE;
+			int exact = solver.solve(board, piece);
+			ConnectFourAI.Pair result = new Engine(16, 1, null).miniMax(Position.ROW * Position.COL - board.moves, board,
+					Integer.MIN_VALUE, Integer.MAX_VALUE, maximizingPlayer);
+			if (exact == 0) {
+				assertFalse(Searcher.isDecided(result.val), "the Solver found a draw");
+			}
+			else {
+				assertEquals(Searcher.tablebaseScore(exact, board.moves, maximizingPlayer), result.val);
+			}
+			checked++;
+		}
+	}
+
+	/**
+	 * Name: minimax
+	 * Description: Minimax with no pruning, scoring a won or lost game by how soon it ends like the Searcher does
+	 * @param board - the position
+	 * @param depth - the depth left
+	 * @param maximizingPlayer - Boolean value to indicate which player's turn it is (maximizing or minimizing player)
+	 * @return - int value of the score
+	 */
+	static int minimax(Position board, int depth, boolean maximizingPlayer) {
+		if (depth == 0 || ConnectFourAI.isTerminalNode(board)) {
+			int score = ConnectFourAI.scanBoardScore(board);
+			if (score == Integer.MAX_VALUE - 1) {
+				return Searcher.decidedScore(board.moves, true);
+			}
+			if (score == Integer.MIN_VALUE + 1) {
+				return Searcher.decidedScore(board.moves, false);
+			}
+			return score;
+		}
+		int best = maximizingPlayer ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+		for (int col = 0; col < Position.COL; col++) {
+			if (board.canPlay(col)) {
+				board.play(col, maximizingPlayer ? ConnectFourAI.AI_PIECE : ConnectFourAI.PLAYER_PIECE);
+				int score = minimax(board, depth - 1, !maximizingPlayer);
+				board.undo(col);
+				best = maximizingPlayer ? Math.max(best, score) : Math.min(best, score);
+			}
+		}
+		return best;
+	}
+}
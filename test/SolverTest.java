@@ -0,0 +1,92 @@
+package ICS4U1;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/*
+Class: SolverTest.java
+Name: Harry Liu
+Date; October 18, 2026
+Description: Checks the Solver against positions with known results and against a plain negamax that tries every move on nearly
+			 full boards, and checks that pliesToEnd() matches the length of the game the negamax finds.
+ */
+
+class SolverTest {
+
+	@Test
+	void knownResults() {
+		Solver solver = new Solver(8);
+		// the first player has three in the bottom row with both ends open, and wins with its 4th piece
+		assertEquals(18, solver.solve(Position.fromMoves("445566", ConnectFourAI.AI_PIECE), ConnectFourAI.AI_PIECE));
+		// the second player can only block one end, so the first player still wins with its 4th piece
+		assertEquals(-18, solver.solve(Position.fromMoves("44556", ConnectFourAI.AI_PIECE), ConnectFourAI.PLAYER_PIECE));
+	}
+
+	@Test
+	void solverMatchesNegamax() {
+		Random random = new Random(5);
+		Solver solver = new Solver(8);
+		int checked = 0;
+		while (checked < 150) {
+			Position board = RandomGames.play(random, 34 + random.nextInt(5));
+			if (ConnectFourAI.isTerminalNode(board) || board.moves < 34) {
+				continue;
+			}
+			int[] plies = new int[1];
+			int expected = negamax(board, plies);
+			assertEquals(expected, solver.solve(board, board.sideToMove()), "after " + board.moves + " moves");
+			assertEquals(plies[0], Solver.pliesToEnd(expected, board.moves));
+			checked++;
+		}
+	}
+
+	@Test
+	void finishedGameIsRejected() {
+		Position board = Position.fromMoves("4545454", ConnectFourAI.AI_PIECE);
+		assertThrows(IllegalArgumentException.class, () -> new Solver(1).solve(board, board.sideToMove()));
+	}
+
+	/**
+	 * Name: negamax
+	 * Description: Scores a position on the Solver's scale by trying every move to the end of the game
+	 * @param board - the position, not finished
+	 * @param plies - filled with the number of moves until the game ends with perfect play
+	 * @return - int value of the score, from the point of view of the side to move
+	 */
+	static int negamax(Position board, int[] plies) {
+		int side = board.sideToMove();
+		if (board.moves == Position.ROW * Position.COL) {
+			plies[0] = 0;
+			return 0;
+		}
+		for (int col = 0; col < Position.COL; col++) {
+			if (board.canPlay(col)) {
+				board.play(col, side);
+				boolean wins = ConnectFourAI.winBoard(board, side);
+				board.undo(col);
+				if (wins) {
+					plies[0] = 1;
+					return (Solver.CELLS + 1 - board.moves) / 2;
+				}
+			}
+		}
+		int best = Integer.MIN_VALUE;
+		int bestPlies = 0;
+		int[] childPlies = new int[1];
+		for (int col = 0; col < Position.COL; col++) {
+			if (board.canPlay(col)) {
+				board.play(col, side);
+				int score = -negamax(board, childPlies);
+				board.undo(col);
+				if (score > best) {
+					best = score;
+					bestPlies = childPlies[0] + 1;
+				}
+			}
+		}
+		plies[0] = bestPlies;
+		return best;
+	}
+}